@@ -0,0 +1,159 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the throughput of a service whose downstream API is artificially slow.
+ *
+ * The benchmark starts a stub of the downstream API that answers every request with
+ * 202 Accepted after a fixed delay, then sends requests to the service from a fixed
+ * number of concurrent clients and reports the throughput, the latency percentiles
+ * and the errors. Run it once against the service started normally and once against
+ * the service started with the virtual-threads profile, and compare the results.
+ *
+ * Usage (see the README for the full procedure):
+ *
+ *   java VirtualThreadsBenchmark.java [--target URL] [--stub-port PORT] [--delay-ms MS]
+ *                                     [--concurrency N] [--warmup-seconds S] [--duration-seconds S]
+ *
+ * The default target is POST /email/send of the email service, started with
+ * sendgrid.host=localhost:9099 so it calls the stub instead of SendGrid.
+ */
+public class VirtualThreadsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        URI target = URI.create(options.getOrDefault("target",
+                "http://localhost:8083/email/send?toEmail=bench@example.com&employee_name=Bench&team_name=Bench"));
+        int stubPort = Integer.parseInt(options.getOrDefault("stub-port", "9099"));
+        long delayMs = Long.parseLong(options.getOrDefault("delay-ms", "500"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup-seconds", "10"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration-seconds", "30"));
+
+        HttpServer stub = startStub(stubPort, delayMs);
+        System.out.printf("Downstream stub on port %d answers after %d ms%n", stubPort, delayMs);
+        System.out.printf("Sending requests to %s from %d clients (%d s warmup, %d s measured)%n",
+                target, concurrency, warmupSeconds, durationSeconds);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> runClient(client, target, measureFrom, measureUntil)));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            latencies.addAll(result.latencies);
+            errors += result.errors;
+        }
+        clients.shutdown();
+        stub.stop(0);
+
+        Collections.sort(latencies);
+        System.out.printf("Completed requests: %d%n", latencies.size());
+        System.out.printf("Failed requests:    %d%n", errors);
+        System.out.printf("Throughput:         %.1f req/s%n", latencies.size() / (double) durationSeconds);
+        System.out.printf("Latency p50:        %d ms%n", percentile(latencies, 0.50));
+        System.out.printf("Latency p99:        %d ms%n", percentile(latencies, 0.99));
+        System.out.printf("Latency max:        %d ms%n", latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1));
+        System.exit(0);
+    }
+
+    private static HttpServer startStub(int port, long delayMs) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", exchange -> {
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(delayMs);
+                byte[] body = "{}".getBytes();
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(202, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        // The stub must never be the bottleneck, every request gets its own thread
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static Result runClient(HttpClient client, URI target, long measureFrom, long measureUntil) {
+        Result result = new Result();
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        while (System.nanoTime() < measureUntil) {
+            long sent = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 400;
+            } catch (Exception ex) {
+                success = false;
+            }
+            long received = System.nanoTime();
+            // Only requests sent and completed inside the measured window are counted
+            if (sent >= measureFrom && received <= measureUntil) {
+                if (success) {
+                    result.latencies.add(Duration.ofNanos(received - sent).toMillis());
+                } else {
+                    result.errors++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static final class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+    }
+}
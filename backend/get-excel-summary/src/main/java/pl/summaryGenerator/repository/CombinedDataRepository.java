@@ -1,5 +1,9 @@
 package pl.summaryGenerator.repository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -14,20 +18,47 @@ import java.util.List;
  * Repository for accessing combined data of employees from the database.
  * This class uses JdbcTemplate to execute SQL queries and map the results
  * to CombinedData objects.
+ *
+ * The duration of the query, the number of rows it returned and its failures are
+ * published as the {@code repository.calls}, {@code repository.rows} and
+ * {@code repository.errors} metrics, with percentile histograms exported through
+ * the Prometheus actuator endpoint.
  */
 @Repository
 public class CombinedDataRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final Timer getTimer;
+    private final DistributionSummary getRows;
+    private final Counter getErrors;
 
     /**
      * Constructs a CombinedDataRepository with the specified JdbcTemplate.
      *
-     * @param jdbcTemplate the JdbcTemplate used for database operations
+     * @param jdbcTemplate  the JdbcTemplate used for database operations
+     * @param meterRegistry the registry of the query metrics
      */
     @Autowired
-    public CombinedDataRepository(JdbcTemplate jdbcTemplate) {
+    public CombinedDataRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.getTimer = Timer.builder("repository.calls")
+                .description("Duration of the calls")
+                .tag("class", "CombinedDataRepository")
+                .tag("method", "get")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.getRows = DistributionSummary.builder("repository.rows")
+                .description("Number of rows returned or affected by the calls")
+                .baseUnit("rows")
+                .tag("class", "CombinedDataRepository")
+                .tag("method", "get")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.getErrors = Counter.builder("repository.errors")
+                .description("Number of calls that threw an exception")
+                .tag("class", "CombinedDataRepository")
+                .tag("method", "get")
+                .register(meterRegistry);
     }
 
     /**
@@ -37,7 +68,17 @@ public class CombinedDataRepository {
      */
     public List<CombinedData> get() {
         String sql = "SELECT first_name, last_name, email, phone, hire_date, role, team_id, name as team FROM employees JOIN menagement_system.teams t on t.ID = employees.team_id";
-        return jdbcTemplate.query(sql, new CombinedDataRepositoryRowMapper());
+        Timer.Sample sample = Timer.start();
+        try {
+            List<CombinedData> rows = jdbcTemplate.query(sql, new CombinedDataRepositoryRowMapper());
+            getRows.record(rows.size());
+            return rows;
+        } catch (RuntimeException ex) {
+            getErrors.increment();
+            throw ex;
+        } finally {
+            sample.stop(getTimer);
+        }
     }
 }
 
@@ -1,5 +1,6 @@
 package pl.sms_service.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import pl.smsapi.OAuthClient;
 import pl.smsapi.api.SmsFactory;
@@ -16,6 +17,14 @@ import java.util.Map;
 public class SmsApiSendSmsService {
 
     private final String oauthToken = System.getenv("SMSAPI_OAUTH_TOKEN");
+    private final String apiUrl;
+
+    /**
+     * @param apiUrl the base URL of SMSAPI, overridden to point at a local stub in benchmarks
+     */
+    public SmsApiSendSmsService(@Value("${smsapi.url:https://api.smsapi.pl/}") String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
 
     public boolean sendSms(Map<String, String> variables) {
         try {
@@ -46,7 +55,7 @@ public class SmsApiSendSmsService {
             );
 
             OAuthClient client = new OAuthClient(oauthToken);
-            ProxyNative proxy = new ProxyNative("https://api.smsapi.pl/");
+            ProxyNative proxy = new ProxyNative(apiUrl);
             SmsFactory smsApi = new SmsFactory(client, proxy);
 
             SMSSend action = smsApi.actionSend(phoneNumber, messageBody);
@@ -2,8 +2,10 @@ package pl.menagment_system.team_menagment_system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TeamMenagmentSystemApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,128 @@
+package pl.menagment_system.team_menagment_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency, the number of rows and the failures of every public call
+ * to the repositories and to the EmployeeEventPublisher.
+ *
+ * Each method gets a timer with a percentile histogram ({@code repository.calls}
+ * or {@code publisher.calls}), a distribution summary of the rows it returned or
+ * affected ({@code repository.rows}) and a counter of the exceptions it threw
+ * ({@code repository.errors} or {@code publisher.errors}), tagged with the class
+ * and the method name. The histograms are exported through the Prometheus
+ * actuator endpoint, so the p99 of a single query or RabbitMQ request/reply can
+ * be read from the buckets.
+ */
+@Aspect
+@Component
+public class CallMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, CallMeters> meters = new ConcurrentHashMap<>();
+
+    public CallMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Reactive repositories return before the query runs, so their calls are not timed here
+    @Around("execution(public * pl.menagment_system.team_menagment_system.repository.*Repository.*(..))"
+            + " && !within(pl.menagment_system.team_menagment_system.repository.Reactive*)")
+    public Object measureRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "repository");
+    }
+
+    @Around("execution(public * pl.menagment_system.team_menagment_system.services.EmployeeEventPublisher.*(..))")
+    public Object measurePublisher(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "publisher");
+    }
+
+    private Object measure(ProceedingJoinPoint joinPoint, String prefix) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CallMeters callMeters = meters.computeIfAbsent(method, key -> new CallMeters(prefix, key));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            long rows = countRows(result);
+            if (callMeters.rows != null && rows >= 0) {
+                callMeters.rows.record(rows);
+            }
+            return result;
+        } catch (Throwable ex) {
+            callMeters.errors.increment();
+            throw ex;
+        } finally {
+            sample.stop(callMeters.timer);
+        }
+    }
+
+    /**
+     * Counts the rows returned by a query or affected by a write.
+     *
+     * @return the number of rows, or -1 if the result does not describe rows
+     */
+    private static long countRows(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Optional<?> row) {
+            return row.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer rowsAffected) {
+            return Math.max(rowsAffected, 0);
+        }
+        if (result instanceof int[] rowsAffected) {
+            // Batches report SUCCESS_NO_INFO (-2) for rows the driver did not count
+            return Arrays.stream(rowsAffected).map(count -> Math.max(count, 0)).sum();
+        }
+        return -1;
+    }
+
+    private final class CallMeters {
+
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final Counter errors;
+
+        private CallMeters(String prefix, Method method) {
+            String className = method.getDeclaringClass().getSimpleName();
+            String methodName = method.getName();
+            this.timer = Timer.builder(prefix + ".calls")
+                    .description("Duration of the calls")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            // The publisher calls do not return rows
+            this.rows = "repository".equals(prefix)
+                    ? DistributionSummary.builder(prefix + ".rows")
+                            .description("Number of rows returned or affected by the calls")
+                            .baseUnit("rows")
+                            .tag("class", className)
+                            .tag("method", methodName)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)
+                    : null;
+            this.errors = Counter.builder(prefix + ".errors")
+                    .description("Number of calls that threw an exception")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package pl.menagment_system.team_menagment_system.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import pl.menagment_system.team_menagment_system.services.IdempotencyStore;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Makes the create endpoints safe to retry with an {@code Idempotency-Key} header.
+ *
+ * The first POST with a key is executed and its response is stored. A retry with
+ * the same key and body is answered with the stored response and the
+ * {@code Idempotent-Replayed} header, without executing the insert or sending the
+ * notifications again. A retry while the first request is still running gets
+ * 409 Conflict, and reusing a key with a different body gets 422 Unprocessable
+ * Entity. Server errors are not stored, so the request can be retried with the
+ * same key. Requests without the header are not affected.
+ */
+@Component
+@Profile("!reactive")
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> PATHS = Set.of("/employees", "/employees/batch", "/teams");
+    // Headers of a created resource, replayed along with the body
+    private static final Set<String> REPLAYED_HEADERS = Set.of(HttpHeaders.LOCATION, HttpHeaders.ETAG);
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY) == null
+                || !PATHS.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain chain) throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).strip();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Klucz idempotencji musi mieć od 1 do " + MAX_KEY_LENGTH + " znaków.");
+            return;
+        }
+
+        // The body is read up front to fingerprint it and then served again to the controller
+        byte[] body = request.getInputStream().readAllBytes();
+        String key = path(request) + " " + idempotencyKey;
+        String fingerprint = fingerprint(body);
+        IdempotencyStore.Entry existing = store.reserve(key, fingerprint);
+
+        if (existing == null) {
+            execute(new CachedBodyRequest(request, body), response, chain, key);
+        } else if (!existing.getFingerprint().equals(fingerprint)) {
+            store.record(IdempotencyStore.MISMATCH);
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Klucz idempotencji został już użyty z inną treścią żądania.");
+        } else if (existing.getResponse() == null) {
+            store.record(IdempotencyStore.IN_PROGRESS);
+            writeError(response, HttpStatus.CONFLICT,
+                    "Żądanie z tym kluczem idempotencji jest jeszcze przetwarzane. Spróbuj ponownie później.");
+        } else {
+            store.record(IdempotencyStore.REPLAYED);
+            replay(response, existing.getResponse());
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response,
+            FilterChain chain, String key) throws ServletException, IOException {
+
+        store.record(IdempotencyStore.EXECUTED);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, cachingResponse);
+            if (cachingResponse.getStatus() < 500) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = cachingResponse.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                stored = store.complete(key, new IdempotencyStore.StoredResponse(cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), headers, cachingResponse.getContentAsByteArray()));
+            }
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Request serving a body that has already been read from the original request.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
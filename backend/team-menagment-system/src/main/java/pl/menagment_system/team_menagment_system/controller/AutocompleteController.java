@@ -0,0 +1,88 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.menagment_system.team_menagment_system.dto.NameSuggestion;
+import pl.menagment_system.team_menagment_system.services.NameAutocompleteIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller class serving the type-ahead suggestions of employee and team names.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    private final NameAutocompleteIndex autocompleteIndex;
+
+    public AutocompleteController(NameAutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Suggests the employees or teams with a word of the name starting with the
+     * given prefix. The suggestions are served by the in-memory NameAutocompleteIndex,
+     * so a keystroke never queries the database.
+     *
+     * @param prefix the typed prefix
+     * @param type   {@code employee} or {@code team}
+     * @param limit  the maximum number of suggestions (1-50, default 10)
+     * @return ResponseEntity containing a Map with success status, message and the
+     *         suggestions, or a 503 response while the index is not loaded
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam String type,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (prefix.isBlank()) {
+                response.put("success", false);
+                response.put("message", "Parametr prefix nie może być pusty.");
+                return ResponseEntity.status(400).body(response);
+            }
+            if (!NameAutocompleteIndex.EMPLOYEE.equals(type) && !NameAutocompleteIndex.TEAM.equals(type)) {
+                response.put("success", false);
+                response.put("message", "Nieznany typ: " + type + ". Dostępne typy: "
+                        + NameAutocompleteIndex.EMPLOYEE + ", " + NameAutocompleteIndex.TEAM + ".");
+                return ResponseEntity.status(400).body(response);
+            }
+            int size = limit != null ? limit : DEFAULT_LIMIT;
+            if (size < 1 || size > MAX_LIMIT) {
+                response.put("success", false);
+                response.put("message", "Parametr limit musi mieścić się w zakresie od 1 do " + MAX_LIMIT + ".");
+                return ResponseEntity.status(400).body(response);
+            }
+            if (!autocompleteIndex.isReady()) {
+                response.put("success", false);
+                response.put("message", "Podpowiedzi są chwilowo niedostępne.");
+                return ResponseEntity.status(503).body(response);
+            }
+
+            List<NameSuggestion> suggestions = autocompleteIndex.suggest(type, prefix, size);
+
+            response.put("success", true);
+            response.put("message", suggestions.isEmpty() ? "Brak podpowiedzi." : "Podpowiedzi zostały pomyślnie pobrane.");
+            response.put("data", suggestions);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania podpowiedzi.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+}
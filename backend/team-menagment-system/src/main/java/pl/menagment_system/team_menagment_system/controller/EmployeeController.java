@@ -1,81 +1,377 @@
 package pl.menagment_system.team_menagment_system.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import pl.menagment_system.team_menagment_system.services.EmployeeEventPublisher;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pl.menagment_system.team_menagment_system.dto.ChangeSet;
+import pl.menagment_system.team_menagment_system.dto.EmployeeBatchResult;
+import pl.menagment_system.team_menagment_system.dto.EmployeeDeletionResult;
 import pl.menagment_system.team_menagment_system.dto.EmployeeRequestDTO;
 import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.NotificationStatus;
+import pl.menagment_system.team_menagment_system.repository.ColumnProjection;
+import pl.menagment_system.team_menagment_system.repository.DataVersions;
 import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
-import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+import pl.menagment_system.team_menagment_system.services.ChangeFeedService;
+import pl.menagment_system.team_menagment_system.services.EmployeeSearchIndex;
 import pl.menagment_system.team_menagment_system.services.EmployeeService;
+import pl.menagment_system.team_menagment_system.services.ReadCoalescer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Controller class for managing employee-related operations.
  * This class handles HTTP requests for operations such as:
  * - Retrieving all employees
  * - Retrieving employees by team
- * - Adding new employees
+ * - Retrieving the changes since a version of the change log
+ * - Searching employees by name, email or role
+ * - Adding new employees, one at a time or in bulk
  * - Deleting employees
  * - Updating employees
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/employees")
 public class EmployeeController {
 
+    private static final int SEARCH_DEFAULT_LIMIT = 20;
+    private static final int SEARCH_MAX_LIMIT = 100;
+
     private final EmployeeRepository employeeRepository;
     private final EmployeeService employeeService;
-    private final EmployeeEventPublisher publisher;
-    private final TeamRepository teamRepository;
+    private final DataVersions dataVersions;
+    private final ChangeFeedService changeFeedService;
+    private final EmployeeSearchIndex searchIndex;
+    private final ReadCoalescer readCoalescer;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
+    private final Validator validator;
+    private final int batchMaxSize;
 
     @Autowired
-    public EmployeeController(EmployeeRepository employeeRepository, EmployeeEventPublisher publisher,
-            TeamRepository teamRepository) {
+    public EmployeeController(EmployeeRepository employeeRepository, EmployeeService employeeService,
+            DataVersions dataVersions, ChangeFeedService changeFeedService,
+            EmployeeSearchIndex searchIndex, ReadCoalescer readCoalescer, ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${employees.batch.max-size:1000}") int batchMaxSize) {
         this.employeeRepository = employeeRepository;
-        this.employeeService = new EmployeeService(employeeRepository);
-        this.teamRepository = teamRepository;
-        this.publisher = publisher;
+        this.employeeService = employeeService;
+        this.dataVersions = dataVersions;
+        this.changeFeedService = changeFeedService;
+        this.searchIndex = searchIndex;
+        this.readCoalescer = readCoalescer;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchMaxSize = batchMaxSize;
+        // Each line is written separately, so the writer must not close the response stream
+        this.ndjsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
-     * Retrieves all employees from the repository and returns a response containing
+     * Retrieves employees from the repository and returns a response containing
      * the result. The response includes employees if found, or appropriate error
      * messages in
      * case of failure.
      *
+     * When {@code limit} or {@code after} is given, a single page of employees
+     * ordered by ID is returned together with a {@code nextCursor} token, which
+     * is passed as {@code after} to fetch the following page. Without these
+     * parameters all employees are returned. The {@code teamId} parameter
+     * restricts the result to the members of a single team.
+     *
+     * The {@code fields} parameter selects the returned properties, e.g.
+     * {@code fields=firstName,lastName} for a picker. Only the matching columns
+     * are read from the database and serialized; the {@code id} is always included.
+     *
+     * The response carries an ETag derived from the data version of the
+     * employees table. A request whose {@code If-None-Match} header matches it
+     * is answered with 304 Not Modified without querying the database.
+     *
+     * Concurrent requests with the same parameters and data version share a
+     * single query and a single serialized response, see ReadCoalescer.
+     *
+     * @param teamId  the ID of the team to filter by, or null for all teams
+     * @param limit   the maximum number of employees on the page (1-500, default 50)
+     * @param after   the cursor token returned with the previous page
+     * @param fields  the comma-separated properties to return, or null for all properties
+     * @param request the current request, used to evaluate If-None-Match
      * @return ResponseEntity containing a Map with the following keys:
      *         - "success": a boolean indicating whether the operation was
      *         successful
      *         - "message": a string describing the operation status
      *         - "data": a list of Employee objects if available, or an empty list
      *         otherwise.
+     *         - "nextCursor": the cursor of the next page, or null on the last
+     *         page (paginated requests only)
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllEmployees() {
+    public ResponseEntity<Object> getAllEmployees(
+            @RequestParam(required = false) Integer teamId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        // Read the version before the data, so a concurrent write leaves the response with an outdated tag
+        String eTag = dataVersions.employeesETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return readCoalescer.execute("employees", Arrays.asList(eTag, teamId, limit, after, fields),
+                () -> SerializedResponse.of(objectMapper, readAllEmployees(teamId, limit, after, fields, eTag)));
+    }
+
+    private ResponseEntity<Map<String, Object>> readAllEmployees(Integer teamId, Integer limit, String after,
+            String fields, String eTag) {
         Map<String, Object> response = new HashMap<>();
         try {
-            List<Employee> employees = employeeRepository.findAll();
+            boolean paginated = limit != null || after != null;
+            List<?> employees = fields != null
+                    ? readEmployees(teamId, paginated, limit, after, EmployeeRepository.COLUMNS.select(fields), response)
+                    : readEmployees(teamId, paginated, limit, after, response);
 
             if (employees.isEmpty()) {
                 // Build not found error response
                 response.put("success", true);
                 response.put("message", "Nie znaleziono pracowników.");
                 response.put("data", employees);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
             }
 
             // Build success response
             response.put("success", true);
             response.put("message", "Pracownicy zostali pomyślnie pobrani.");
             response.put("data", employees);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
+
+        } catch (IllegalArgumentException ex) {
+            // Build invalid pagination parameters response
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception ex) {
+            // Build unexpected error response
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    private List<Employee> readEmployees(Integer teamId, boolean paginated, Integer limit, String after,
+            Map<String, Object> response) {
+        if (teamId != null && paginated) {
+            return PageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPageByTeamId(teamId, afterId, size),
+                    Employee::getId, response);
+        } else if (teamId != null) {
+            return employeeRepository.findByTeamId(teamId);
+        } else if (paginated) {
+            return PageCursor.readPage(limit, after, employeeRepository::findPage, Employee::getId, response);
+        }
+        return employeeRepository.findAll();
+    }
+
+    private List<Map<String, Object>> readEmployees(Integer teamId, boolean paginated, Integer limit, String after,
+            ColumnProjection projection, Map<String, Object> response) {
+        if (teamId != null && paginated) {
+            return PageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPageByTeamId(teamId, afterId, size, projection),
+                    row -> (int) row.get("id"), response);
+        } else if (teamId != null) {
+            return employeeRepository.findByTeamId(teamId, projection);
+        } else if (paginated) {
+            return PageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPage(afterId, size, projection),
+                    row -> (int) row.get("id"), response);
+        }
+        return employeeRepository.findAll(projection);
+    }
+
+    /**
+     * Streams all employees as newline-delimited JSON, one employee per line.
+     * Rows are written to the response while they are read from the database,
+     * so memory use stays flat regardless of the number of employees and the
+     * first bytes are sent immediately. Intended for integrations pulling the
+     * whole roster.
+     *
+     * @return ResponseEntity with a streaming body in the application/x-ndjson format
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees() {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                employeeRepository.streamAll(employee -> {
+                    try {
+                        ndjsonWriter.writeValue(outputStream, employee);
+                        outputStream.write('\n');
+                    } catch (IOException ex) {
+                        // Aborts the database read, e.g. when the client disconnects
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Retrieves the employees created, updated or deleted after the given version of
+     * the change log. Polling clients pass the {@code version} of the previous
+     * response as {@code since} and receive only the changed rows, instead of
+     * the whole list. When {@code hasMore} is true the next changes can be
+     * fetched immediately.
+     *
+     * @param since the last version known to the client, 0 for all retained changes
+     * @return ResponseEntity containing a Map with success status, message and the changes,
+     *         or a 410 response with the latest version if the changes were already pruned
+     *         and the client has to reload the full list
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getEmployeeChanges(@RequestParam long since) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (since < 0) {
+                response.put("success", false);
+                response.put("message", "Parametr since nie może być ujemny.");
+                return ResponseEntity.status(400).body(response);
+            }
+            if (changeFeedService.isExpired(since)) {
+                response.put("success", false);
+                response.put("message", "Zmiany od wersji " + since + " nie są już dostępne. Pobierz pełną listę.");
+                response.put("version", changeFeedService.latestVersion());
+                return ResponseEntity.status(410).body(response);
+            }
+
+            ChangeSet<Employee> changes = changeFeedService.employeeChanges(since);
+
+            response.put("success", true);
+            response.put("message", "Zmiany pracowników zostały pomyślnie pobrane.");
+            response.put("data", changes);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania zmian.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Searches employees by a part of their first name, last name, email or role.
+     * All whitespace-separated terms of the query must match; terms shorter than
+     * three characters match the start of a word. Letters are compared without
+     * case and diacritics. The search is served by the in-memory
+     * EmployeeSearchIndex, without querying the database.
+     *
+     * @param q     the search query, at least 2 characters
+     * @param limit the maximum number of employees to return (1-100, default 20)
+     * @return ResponseEntity containing a Map with success status, message and the
+     *         matching employees, best match first, or a 503 response while the
+     *         search index is not loaded
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchEmployees(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (q.strip().length() < 2) {
+                response.put("success", false);
+                response.put("message", "Zapytanie musi zawierać co najmniej 2 znaki.");
+                return ResponseEntity.status(400).body(response);
+            }
+            int size = limit != null ? limit : SEARCH_DEFAULT_LIMIT;
+            if (size < 1 || size > SEARCH_MAX_LIMIT) {
+                response.put("success", false);
+                response.put("message", "Parametr limit musi mieścić się w zakresie od 1 do " + SEARCH_MAX_LIMIT + ".");
+                return ResponseEntity.status(400).body(response);
+            }
+            if (!searchIndex.isReady()) {
+                response.put("success", false);
+                response.put("message", "Wyszukiwanie pracowników jest chwilowo niedostępne.");
+                return ResponseEntity.status(503).body(response);
+            }
+
+            List<Employee> employees = searchIndex.search(q, size);
+
+            response.put("success", true);
+            response.put("message", employees.isEmpty()
+                    ? "Nie znaleziono pracowników."
+                    : "Znaleziono pracowników: " + employees.size() + ".");
+            response.put("data", employees);
             return ResponseEntity.ok(response);
 
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas wyszukiwania pracowników.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Retrieves a single employee. The response carries the version of the employee
+     * as its ETag, which can be sent back in the {@code If-Match} header of an update.
+     * A request whose {@code If-None-Match} header matches it is answered with
+     * 304 Not Modified.
+     *
+     * @param id      the ID of the employee
+     * @param request the current request, used to evaluate If-None-Match
+     * @return ResponseEntity containing a Map with success status, message and the employee,
+     *         or a 404 response if the employee does not exist
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getEmployee(@PathVariable int id, WebRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Optional<Employee> employee = employeeRepository.findById(id);
+            if (employee.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Nie znaleziono pracownika o identyfikatorze " + id + ".");
+                return ResponseEntity.status(404).body(response);
+            }
+
+            String eTag = EntityTag.of(employee.get().getVersion());
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            response.put("success", true);
+            response.put("message", "Pracownik został pomyślnie pobrany.");
+            response.put("data", employee.get());
+            return ResponseEntity.ok().eTag(eTag).body(response);
         } catch (Exception ex) {
             // Build unexpected error response
             response.put("success", false);
@@ -124,6 +420,43 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Deletes several employees in one request. The existing employees are
+     * removed with one set-based delete per chunk of IDs instead of one request
+     * and two queries per employee.
+     *
+     * @param ids the IDs of the employees to be deleted, at most {@code employees.batch.max-size}
+     * @return A ResponseEntity containing a Map with the operation's status, a
+     *         message, and in "data" the deleted employees and the IDs that do
+     *         not match any employee. If no IDs or too many IDs are given, it
+     *         returns a 400 status. If there's an unexpected error, it returns a
+     *         500 status and no employee is deleted.
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteEmployees(@RequestParam List<Integer> ids) {
+        Map<String, Object> response = new HashMap<>();
+        if (ids.isEmpty() || ids.size() > batchMaxSize) {
+            response.put("success", false);
+            response.put("message", "Liczba pracowników musi wynosić od 1 do " + batchMaxSize + ".");
+            return ResponseEntity.status(400).body(response);
+        }
+
+        try {
+            EmployeeDeletionResult result = employeeService.deleteAll(ids);
+
+            // Build response
+            response.put("success", result.getNotFound().isEmpty());
+            response.put("message", "Usunięto " + result.getDeleted().size() + " pracowników.");
+            response.put("data", result);
+            return ResponseEntity.ok(response);
+        } catch (Exception ex) {
+            // Build unexpected error response
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     /**
      * Adds a new employee to the system after validating the provided data.
      * The email of the employee must be unique, and the request data must meet the
@@ -134,7 +467,8 @@ public class EmployeeController {
      *            phone,
      *            hire date, role, and team ID.
      * @return A ResponseEntity containing a Map with the operation's status, a
-     *         message, and the added employee object if successful.
+     *         message, and the added employee object with its generated ID if
+     *         successful.
      *         If there's a validation error, it returns a 400 status with an error
      *         message. If there's an unexpected error, it returns a 500 status with
      *         an error
@@ -145,9 +479,6 @@ public class EmployeeController {
             @Validated(EmployeeRequestDTO.Create.class) @RequestBody EmployeeRequestDTO dto) {
         Map<String, Object> response = new HashMap<>();
         try {
-            // Validate uniqueness of email
-            employeeService.validateEmailUniqueness(dto.getEmail());
-
             Employee employee = new Employee(
                     0, // ID will be auto-generated
                     dto.getFirstName(),
@@ -159,19 +490,22 @@ public class EmployeeController {
                     dto.getTeamId());
 
             String fullName = employee.getFirstName() + " " + employee.getLastName();
-            employeeRepository.save(employee);
 
-            String emailStatus = publisher.sendEmployeeUpdateMail(getNotificationData(employee));
-            String smsStatus = publisher.sendEmployeeUpdateSms(getNotificationData(employee));
+            // Validates the email, stores the employee with its generated ID and queues the notifications in one transaction
+            NotificationStatus notification = employeeService.create(employee);
 
             // Build success response
             response.put("success", true);
             response.put("message", "Pracownik " + fullName + " został dodany.");
             response.put("data", employee);
-            response.put("emailSentStatus", emailStatus);
-            response.put("smsSentStatus", smsStatus);
+            putNotificationStatus(response, notification);
             return ResponseEntity.ok(response);
 
+        } catch (DuplicateKeyException ex) {
+            // Another request stored the same email in the meantime
+            response.put("success", false);
+            response.put("message", "Email is already in use.");
+            return ResponseEntity.status(400).body(response);
         } catch (IllegalArgumentException ex) {
             // Build validation error response
             response.put("success", false);
@@ -185,13 +519,97 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Adds several new employees in one request. Every row is validated like a
+     * single {@code POST /employees} request; the valid rows are checked for
+     * duplicate emails with one query, inserted with a single JDBC batch and
+     * their notifications are queued together. Invalid rows are reported and
+     * skipped without affecting the others.
+     *
+     * @param dtos the employees to be added, at most {@code employees.batch.max-size}
+     * @return A ResponseEntity containing a Map with the operation's status, a
+     *         message, and in "data" the result of every row in request order:
+     *         its index, success flag, message, validation errors of invalid
+     *         fields, and the created employee with its notification ID.
+     *         If the batch is empty or too large, it returns a 400 status. If
+     *         there's an unexpected error, it returns a 500 status and no
+     *         employee is added.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> addEmployees(@RequestBody List<EmployeeRequestDTO> dtos) {
+        Map<String, Object> response = new HashMap<>();
+        if (dtos.isEmpty() || dtos.size() > batchMaxSize) {
+            response.put("success", false);
+            response.put("message", "Liczba pracowników musi wynosić od 1 do " + batchMaxSize + ".");
+            return ResponseEntity.status(400).body(response);
+        }
+
+        try {
+            Map<Integer, EmployeeBatchResult> results = new TreeMap<>();
+            Map<Integer, Employee> validEmployees = new LinkedHashMap<>();
+            for (int i = 0; i < dtos.size(); i++) {
+                EmployeeRequestDTO dto = dtos.get(i);
+                Set<ConstraintViolation<EmployeeRequestDTO>> violations = dto == null
+                        ? Set.of()
+                        : validator.validate(dto, EmployeeRequestDTO.Create.class);
+                if (dto == null || !violations.isEmpty()) {
+                    Map<String, String> errors = new HashMap<>();
+                    violations.forEach(violation ->
+                            errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+                    results.put(i, EmployeeBatchResult.failed(i, "Nieprawidłowe dane pracownika.", errors));
+                    continue;
+                }
+                validEmployees.put(i, new Employee(
+                        0, // ID will be auto-generated
+                        dto.getFirstName(),
+                        dto.getLastName(),
+                        dto.getEmail(),
+                        dto.getPhone(),
+                        dto.getHireDate(),
+                        dto.getRole(),
+                        dto.getTeamId()));
+            }
+
+            if (!validEmployees.isEmpty()) {
+                // Checks the emails, stores the employees and queues the notifications in one transaction
+                for (EmployeeBatchResult result : employeeService.createAll(validEmployees)) {
+                    results.put(result.getIndex(), result);
+                }
+            }
+
+            long created = results.values().stream().filter(EmployeeBatchResult::isSuccess).count();
+
+            // Build per-row response
+            response.put("success", created == dtos.size());
+            response.put("message", "Dodano " + created + " z " + dtos.size() + " pracowników.");
+            response.put("data", new ArrayList<>(results.values()));
+            return ResponseEntity.ok(response);
+
+        } catch (DuplicateKeyException ex) {
+            // Another request stored one of the emails in the meantime
+            response.put("success", false);
+            response.put("message", "Email is already in use.");
+            return ResponseEntity.status(400).body(response);
+        } catch (Exception ex) {
+            // Build unexpected error response
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     /**
      * Updates an existing employee's details based on the given information.
      * Only the provided fields in the request will be updated.
      *
+     * The update only succeeds if the employee was not changed since it was read,
+     * otherwise 409 Conflict is returned. Clients can pin the version they have
+     * shown to the user by sending its ETag in the {@code If-Match} header.
+     *
      * @param id                 The ID of the employee to be updated.
      * @param employeeRequestDTO The data transfer object containing the employee
      *                           details to be updated.
+     * @param ifMatch            The ETag of the version the changes are based on, or null.
      * @return A ResponseEntity containing a map with the operation result,
      *         including success status, message,
      *         and updated employee data in case of success.
@@ -199,7 +617,8 @@ public class EmployeeController {
     @PatchMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updateEmployee(
             @PathVariable("id") int id,
-            @RequestBody @Validated(EmployeeRequestDTO.Update.class) EmployeeRequestDTO employeeRequestDTO) {
+            @RequestBody @Validated(EmployeeRequestDTO.Update.class) EmployeeRequestDTO employeeRequestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Map<String, Object> response = new HashMap<>();
         boolean isNewTeam = false;
         try {
@@ -213,6 +632,11 @@ public class EmployeeController {
             }
 
             Employee existingEmployee = existingEmployeeOptional.get();
+            if (!EntityTag.matches(ifMatch, existingEmployee.getVersion())) {
+                response.put("success", false);
+                response.put("message", conflictMessage(id));
+                return ResponseEntity.status(409).eTag(EntityTag.of(existingEmployee.getVersion())).body(response);
+            }
 
             // Check each field and update only if provided
             if (employeeRequestDTO.getFirstName() != null) {
@@ -242,16 +666,24 @@ public class EmployeeController {
             }
 
             String fullName = existingEmployee.getFirstName() + " " + existingEmployee.getLastName();
-            employeeRepository.update(existingEmployee);
+            NotificationStatus notification = employeeService.update(existingEmployee, isNewTeam);
 
             response.put("success", true);
             response.put("message", "Pracownik " + fullName + " został pomyślnie zaktualizowany.");
             response.put("data", existingEmployee);
-            response.put("emailSentStatus",
-                    isNewTeam ? publisher.sendEmployeeUpdateMail(getNotificationData(existingEmployee)) : null);
-            response.put("smsSentStatus", isNewTeam ? publisher.sendEmployeeUpdateSms(getNotificationData(existingEmployee)) : null);
-            return ResponseEntity.ok(response);
+            putNotificationStatus(response, notification);
+            return ResponseEntity.ok().eTag(EntityTag.of(existingEmployee.getVersion())).body(response);
 
+        } catch (OptimisticLockingFailureException ex) {
+            // Another request updated or deleted the employee after it was read
+            response.put("success", false);
+            response.put("message", conflictMessage(id));
+            return ResponseEntity.status(409).body(response);
+        } catch (DuplicateKeyException ex) {
+            // Another request stored the same email in the meantime
+            response.put("success", false);
+            response.put("message", "Email is already in use.");
+            return ResponseEntity.status(400).body(response);
         } catch (IllegalArgumentException ex) {
             // Handle validation error
             response.put("success", false);
@@ -265,15 +697,22 @@ public class EmployeeController {
         }
     }
 
-    private Map<String, String> getNotificationData(Employee employee) {
-        String teamName = teamRepository.findById(employee.getTeamId()).get().getName();
-
-        Map<String, String> employeeNotificationData = new HashMap<>();
-        employeeNotificationData.put("email", employee.getEmail());
-        employeeNotificationData.put("firstName", employee.getFirstName());
-        employeeNotificationData.put("newTeam", teamName);
-        employeeNotificationData.put("phone", employee.getPhone());
+    private static String conflictMessage(int id) {
+        return "Pracownik o identyfikatorze " + id
+                + " został w międzyczasie zmieniony. Pobierz aktualne dane i spróbuj ponownie.";
+    }
 
-        return employeeNotificationData;
+    /**
+     * Adds the notification ID and the email and SMS delivery statuses to the response.
+     * In the asynchronous notification mode the statuses are still "PENDING" and the
+     * final result is available at {@code GET /notifications/{notificationId}}.
+     *
+     * @param response     the response map
+     * @param notification the status of the sent notification, or null if none was sent
+     */
+    private void putNotificationStatus(Map<String, Object> response, NotificationStatus notification) {
+        response.put("notificationId", notification != null ? notification.getId() : null);
+        response.put("emailSentStatus", notification != null ? notification.getEmailStatus() : null);
+        response.put("smsSentStatus", notification != null ? notification.getSmsStatus() : null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+/**
+ * Converts the version of a single employee or team to the strong ETag of its
+ * representation and evaluates the If-Match header of updates against it.
+ */
+final class EntityTag {
+
+    private EntityTag() {
+    }
+
+    /**
+     * Returns the ETag of the given version.
+     *
+     * @param version the version of the employee or team
+     * @return the quoted ETag value
+     */
+    static String of(int version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks whether an If-Match header matches the given version. The header may
+     * be {@code *} or a comma-separated list of entity tags; weak tags never match.
+     *
+     * @param ifMatch the value of the If-Match header, or null if it was not sent
+     * @param version the current version of the employee or team
+     * @return true if the header is absent or matches the version
+     * @throws IllegalArgumentException if the header is malformed
+     */
+    static boolean matches(String ifMatch, int version) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return true;
+        }
+        String current = of(version);
+        boolean matches = false;
+        // Every tag is validated, also after a matching one
+        for (String tag : ifMatch.split(",", -1)) {
+            tag = tag.strip();
+            if (!tag.matches("(W/)?\"[^\"]*\"")) {
+                throw new IllegalArgumentException("Nieprawidłowy nagłówek If-Match.");
+            }
+            matches |= tag.equals(current);
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,48 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.menagment_system.team_menagment_system.services.ChangeEventBroadcaster;
+
+import java.util.Optional;
+
+/**
+ * This controller provides a Server-Sent Events stream of the changes of employees
+ * and teams, so clients can update their views without polling the list endpoints.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/events")
+public class EventController {
+
+    private final ChangeEventBroadcaster broadcaster;
+
+    @Autowired
+    public EventController(ChangeEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Opens an event stream. Every committed creation, update or deletion of an
+     * employee or a team is sent as an event named {@code employee} or {@code team}
+     * with the change type, the ID and the current data of the row.
+     *
+     * @return ResponseEntity with the event stream, or a 503 response if the maximum
+     *         number of subscribers is reached
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe() {
+        Optional<SseEmitter> emitter = broadcaster.subscribe();
+        if (emitter.isEmpty()) {
+            return ResponseEntity.status(503).build();
+        }
+        return ResponseEntity.ok()
+                // Keeps reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter.get());
+    }
+}
@@ -0,0 +1,53 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.menagment_system.team_menagment_system.model.NotificationStatus;
+import pl.menagment_system.team_menagment_system.services.NotificationService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This controller provides the delivery status of the email and SMS notifications
+ * sent when an employee is added or moved to another team.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Retrieves the delivery status of a notification.
+     *
+     * @param id the notification ID returned by the employee endpoints
+     * @return ResponseEntity containing a Map with success status, message and the notification status,
+     *         or a 404 response if the notification is unknown
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getNotificationStatus(@PathVariable String id) {
+        Map<String, Object> response = new HashMap<>();
+
+        Optional<NotificationStatus> status = notificationService.findById(id);
+        if (status.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Nie znaleziono powiadomienia o identyfikatorze " + id + ".");
+            return ResponseEntity.status(404).body(response);
+        }
+
+        response.put("success", true);
+        response.put("message", "Status powiadomienia został pobrany.");
+        response.put("data", status.get());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,100 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Encodes and decodes the opaque cursor tokens used for keyset pagination.
+ * A token wraps the ID of the last row of a page, so clients can pass it back
+ * as the {@code after} parameter without relying on its format.
+ */
+final class PageCursor {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Creates a cursor token pointing after the given ID.
+     *
+     * @param lastId the ID of the last row of the current page
+     * @return the cursor token
+     */
+    static String encode(int lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Reads the ID stored in a cursor token.
+     *
+     * @param token the cursor token, or null for the first page
+     * @return the ID after which the page starts, 0 for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static int decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Nieprawidłowy kursor stronicowania.");
+            }
+            return Integer.parseInt(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Nieprawidłowy kursor stronicowania.");
+        }
+    }
+
+    /**
+     * Reads one page of rows and stores the cursor of the following page under
+     * the {@code nextCursor} key of the response.
+     *
+     * @param limit    the requested page size, or null for the default
+     * @param after    the cursor token of the previous page, or null for the first page
+     * @param query    the query receiving the start ID and the number of rows to read
+     * @param idOf     the function returning the ID of a row
+     * @param response the response map to store the next cursor in
+     * @param <T>      the type of the rows
+     * @return the rows of the requested page
+     * @throws IllegalArgumentException if the limit or the cursor is invalid
+     */
+    static <T> List<T> readPage(Integer limit, String after, BiFunction<Integer, Integer, List<T>> query,
+            ToIntFunction<T> idOf, Map<String, Object> response) {
+        int pageSize = resolveLimit(limit);
+        // Fetch one extra row to find out whether another page exists
+        List<T> rows = query.apply(decode(after), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        response.put("nextCursor", hasMore ? encode(idOf.applyAsInt(rows.get(rows.size() - 1))) : null);
+        return rows;
+    }
+
+    /**
+     * Validates the requested page size and applies the default.
+     *
+     * @param limit the requested page size, or null for the default
+     * @return the page size to use
+     * @throws IllegalArgumentException if the size is outside the allowed range
+     */
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Parametr limit musi mieścić się w zakresie od 1 do " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+}
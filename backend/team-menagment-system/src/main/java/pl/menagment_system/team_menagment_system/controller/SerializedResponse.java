@@ -0,0 +1,36 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes the body of a response to JSON up front, so a response shared by
+ * coalesced requests is serialized once and its bytes are written to every client.
+ */
+final class SerializedResponse {
+
+    private SerializedResponse() {
+    }
+
+    /**
+     * Returns a copy of the given response with its body serialized to JSON.
+     *
+     * @param objectMapper the mapper used for the response bodies
+     * @param response     the response to serialize
+     * @return the response with the same status and headers and a JSON byte array body
+     */
+    static ResponseEntity<Object> of(ObjectMapper objectMapper, ResponseEntity<?> response) {
+        try {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(response.getBody()));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.menagment_system.team_menagment_system.repository.EmployeeStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This controller provides the headcount, role distribution and hire-year cohorts
+ * of the employees, in total and per team, for the manager dashboard.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final EmployeeStatistics statistics;
+
+    @Autowired
+    public StatsController(EmployeeStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Retrieves the employee statistics kept in memory, without querying the database.
+     *
+     * @return ResponseEntity containing a Map with success status, message and the statistics,
+     *         or a 503 response if the statistics are not loaded yet
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        Map<String, Object> response = new HashMap<>();
+
+        Optional<Map<String, Object>> snapshot = statistics.snapshot();
+        if (snapshot.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Statystyki są chwilowo niedostępne.");
+            return ResponseEntity.status(503).body(response);
+        }
+
+        response.put("success", true);
+        response.put("message", "Statystyki zostały pomyślnie pobrane.");
+        response.put("data", snapshot.get());
+        return ResponseEntity.ok(response);
+    }
+}
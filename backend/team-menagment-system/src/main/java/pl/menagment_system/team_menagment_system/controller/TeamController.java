@@ -1,13 +1,31 @@
 package pl.menagment_system.team_menagment_system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pl.menagment_system.team_menagment_system.dto.ChangeSet;
+import pl.menagment_system.team_menagment_system.dto.TeamReassignmentResult;
 import pl.menagment_system.team_menagment_system.dto.TeamRequestDTO;
+import pl.menagment_system.team_menagment_system.model.Employee;
 import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.model.TeamDeletionJob;
+import pl.menagment_system.team_menagment_system.repository.DataVersions;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
 import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+import pl.menagment_system.team_menagment_system.services.ChangeFeedService;
+import pl.menagment_system.team_menagment_system.services.EmployeeService;
+import pl.menagment_system.team_menagment_system.services.ReadCoalescer;
+import pl.menagment_system.team_menagment_system.services.TeamDeletionService;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,14 +36,35 @@ import java.util.Optional;
  * It allows the retrieval, addition, deletion, and partial updating of team entities.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/teams")
 public class TeamController {
 
     private final TeamRepository teamRepository;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final DataVersions dataVersions;
+    private final ChangeFeedService changeFeedService;
+    private final TeamDeletionService teamDeletionService;
+    private final ReadCoalescer readCoalescer;
+    private final ObjectMapper objectMapper;
+    private final int batchMaxSize;
 
     @Autowired
-    public TeamController(TeamRepository teamRepository) {
+    public TeamController(TeamRepository teamRepository, EmployeeRepository employeeRepository,
+            EmployeeService employeeService, DataVersions dataVersions,
+            ChangeFeedService changeFeedService, TeamDeletionService teamDeletionService,
+            ReadCoalescer readCoalescer, ObjectMapper objectMapper,
+            @Value("${employees.batch.max-size:1000}") int batchMaxSize) {
         this.teamRepository = teamRepository;
+        this.employeeRepository = employeeRepository;
+        this.employeeService = employeeService;
+        this.dataVersions = dataVersions;
+        this.changeFeedService = changeFeedService;
+        this.teamDeletionService = teamDeletionService;
+        this.readCoalescer = readCoalescer;
+        this.objectMapper = objectMapper;
+        this.batchMaxSize = batchMaxSize;
     }
 
     /**
@@ -33,28 +72,53 @@ public class TeamController {
      * This method attempts to fetch all records of teams, constructs a response with the appropriate
      * message, data, and success status, and returns it to the client.
      * If an exception occurs, a 500 Internal Server Error is returned with an error message.
+     * A request whose If-None-Match header matches the data version of the teams table is
+     * answered with 304 Not Modified without querying the database.
+     * The {@code fields} parameter selects the returned properties; only the matching
+     * columns are read and serialized, and the {@code id} is always included.
+     * Concurrent requests with the same parameters and data version share a
+     * single query and a single serialized response, see ReadCoalescer.
      *
+     * @param fields  the comma-separated properties to return, or null for all properties
+     * @param request the current request, used to evaluate If-None-Match
      * @return ResponseEntity containing a Map with success status, message, and team data or error details.
      */
     @GetMapping
-    public ResponseEntity<Object> getAllTeams() {
+    public ResponseEntity<Object> getAllTeams(@RequestParam(required = false) String fields, WebRequest request) {
+        String eTag = dataVersions.teamsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return readCoalescer.execute("teams", Arrays.asList(eTag, fields),
+                () -> SerializedResponse.of(objectMapper, readAllTeams(fields, eTag)));
+    }
+
+    private ResponseEntity<Object> readAllTeams(String fields, String eTag) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<Team> teams = teamRepository.findAll();
+            List<?> teams = fields != null
+                    ? teamRepository.findAll(TeamRepository.COLUMNS.select(fields))
+                    : teamRepository.findAll();
 
             if (teams.isEmpty()) {
                 response.put("success", true);
                 response.put("message", "Nie pobrano żadnych zespołów.");
                 response.put("data", teams);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
             }
 
             response.put("success", true);
             response.put("message", "Zespoły pobrane pomyślnie.");
             response.put("data", teams);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
 
+        } catch (IllegalArgumentException ex) {
+            // Build invalid fields parameter response
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return ResponseEntity.status(400).body(response);
         } catch (Exception ex) {
             response.put("success", false);
             response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania zespołów.");
@@ -63,12 +127,208 @@ public class TeamController {
         }
     }
 
+    /**
+     * Retrieves the teams created, updated or deleted after the given version of
+     * the change log. Polling clients pass the {@code version} of the previous
+     * response as {@code since} and receive only the changed rows, instead of
+     * the whole list. When {@code hasMore} is true the next changes can be
+     * fetched immediately.
+     *
+     * @param since the last version known to the client, 0 for all retained changes
+     * @return ResponseEntity containing a Map with success status, message and the changes,
+     *         or a 410 response with the latest version if the changes were already pruned
+     *         and the client has to reload the full list
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getTeamChanges(@RequestParam long since) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (since < 0) {
+                response.put("success", false);
+                response.put("message", "Parametr since nie może być ujemny.");
+                return ResponseEntity.status(400).body(response);
+            }
+            if (changeFeedService.isExpired(since)) {
+                response.put("success", false);
+                response.put("message", "Zmiany od wersji " + since + " nie są już dostępne. Pobierz pełną listę.");
+                response.put("version", changeFeedService.latestVersion());
+                return ResponseEntity.status(410).body(response);
+            }
+
+            ChangeSet<Team> changes = changeFeedService.teamChanges(since);
+
+            response.put("success", true);
+            response.put("message", "Zmiany zespołów zostały pomyślnie pobrane.");
+            response.put("data", changes);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania zmian.");
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Retrieves a single team. The response carries the version of the team as its
+     * ETag, which can be sent back in the {@code If-Match} header of an update.
+     * A request whose {@code If-None-Match} header matches it is answered with
+     * 304 Not Modified.
+     *
+     * @param id      the ID of the team
+     * @param request the current request, used to evaluate If-None-Match
+     * @return ResponseEntity containing a Map with success status, message and the team,
+     *         or a 404 response if the team does not exist
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Object> getTeam(@PathVariable int id, WebRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Optional<Team> team = teamRepository.findById(id);
+            if (team.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Zespół o ID " + id + " nie został znaleziony.");
+                return ResponseEntity.status(404).body(response);
+            }
+
+            String eTag = EntityTag.of(team.get().getVersion());
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            response.put("success", true);
+            response.put("message", "Zespół pobrany pomyślnie.");
+            response.put("data", team.get());
+            return ResponseEntity.ok().eTag(eTag).body(response);
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania zespołu.");
+            response.put("error", ex.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Retrieves the employees of a single team. The query is served by the index on
+     * {@code employees.team_id}, so its cost depends on the size of the team only.
+     * Supports the same {@code limit} and {@code after} pagination parameters as
+     * {@code GET /employees}, and the same ETag handling, based on the data versions
+     * of both tables.
+     *
+     * @param id      the ID of the team
+     * @param limit   the maximum number of employees on the page (1-500, default 50)
+     * @param after   the cursor token returned with the previous page
+     * @param request the current request, used to evaluate If-None-Match
+     * @return ResponseEntity containing a Map with success status, message and the team's employees,
+     *         or a 404 response if the team does not exist
+     */
+    @GetMapping("/{id}/employees")
+    public ResponseEntity<Object> getTeamEmployees(
+            @PathVariable int id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        String eTag = dataVersions.teamEmployeesETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (teamRepository.findById(id).isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Zespół o ID " + id + " nie został znaleziony.");
+                return ResponseEntity.status(404).body(response);
+            }
+
+            List<Employee> employees;
+            if (limit != null || after != null) {
+                employees = PageCursor.readPage(limit, after,
+                        (afterId, size) -> employeeRepository.findPageByTeamId(id, afterId, size),
+                        Employee::getId, response);
+            } else {
+                employees = employeeRepository.findByTeamId(id);
+            }
+
+            response.put("success", true);
+            response.put("message", employees.isEmpty()
+                    ? "Nie znaleziono pracowników zespołu."
+                    : "Pracownicy zespołu zostali pomyślnie pobrani.");
+            response.put("data", employees);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response);
+
+        } catch (IllegalArgumentException ex) {
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return ResponseEntity.status(400).body(response);
+
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania pracowników zespołu.");
+            response.put("error", ex.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Moves a group of employees to the team in one request. The employees are
+     * updated with a single set-based query, the team name is resolved once and
+     * the moved employees are notified with one batch of notifications. Employees
+     * already in the team and unknown IDs are reported and skipped.
+     *
+     * @param id          the ID of the team the employees are moved to
+     * @param employeeIds the IDs of the employees to move, at most {@code employees.batch.max-size}
+     * @return ResponseEntity containing a Map with success status, message, the moved employees
+     *         and their notification IDs, or a 404 response if the team does not exist
+     */
+    @PostMapping("/{id}/members")
+    public ResponseEntity<Object> addTeamMembers(@PathVariable int id, @RequestBody List<Integer> employeeIds) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (employeeIds.isEmpty() || employeeIds.size() > batchMaxSize || employeeIds.contains(null)) {
+            response.put("success", false);
+            response.put("message", "Lista musi zawierać od 1 do " + batchMaxSize + " identyfikatorów pracowników.");
+            return ResponseEntity.status(400).body(response);
+        }
+
+        try {
+            Optional<Team> optionalTeam = teamRepository.findById(id);
+            if (optionalTeam.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Zespół o ID " + id + " nie został znaleziony.");
+                return ResponseEntity.status(404).body(response);
+            }
+
+            Team team = optionalTeam.get();
+            TeamReassignmentResult result = employeeService.moveToTeam(team, employeeIds);
+
+            response.put("success", result.getNotFound().isEmpty());
+            response.put("message", "Do zespołu " + team.getName() + " przeniesiono "
+                    + result.getMoved().size() + " pracowników.");
+            response.put("data", result.getMoved());
+            response.put("notificationIds", result.getNotificationIds());
+            response.put("alreadyMembers", result.getAlreadyMembers());
+            response.put("notFound", result.getNotFound());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception ex) {
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas przenoszenia pracowników.");
+            response.put("error", ex.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     /**
      * Deletes a team identified by its ID.
+     * A team with more members than fit in one chunk is deleted by a background job
+     * instead, and the request is answered with 202 Accepted and the job, whose
+     * progress is available at {@code GET /teams/deletions/{jobId}}.
      *
      * @param id The ID of the team to be deleted.
-     * @return A ResponseEntity containing the response details, including a success message if the team was deleted,
-     *         or an error message if the team was not found or an unexpected error occurred.
+     * @return A ResponseEntity containing the response details, including a success message if the team was deleted
+     *         or its deletion job was started, or an error message if the team was not found or an unexpected error occurred.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteTeam(@PathVariable int id) {
@@ -86,6 +346,18 @@ public class TeamController {
 
             String teamName = optionalTeam.get().getName();
 
+            // Large teams are deleted by a background job in chunks of members
+            Optional<TeamDeletionJob> activeJob = teamDeletionService.findActive(id);
+            if (activeJob.isPresent() || teamDeletionService.requiresJob(id)) {
+                TeamDeletionJob job = activeJob.orElseGet(() -> teamDeletionService.start(optionalTeam.get()));
+                response.put("success", true);
+                response.put("message", "Usuwanie zespołu " + teamName + " zostało rozpoczęte.");
+                response.put("data", job);
+                return ResponseEntity.status(202)
+                        .header(HttpHeaders.LOCATION, "/teams/deletions/" + job.getId())
+                        .body(response);
+            }
+
             // Perform deletion
             int rowsAffected = teamRepository.deleteById(id);
             if (rowsAffected > 0) {
@@ -106,13 +378,38 @@ public class TeamController {
         }
     }
 
+    /**
+     * Retrieves the progress of a team deletion job.
+     *
+     * @param jobId the job ID returned by {@code DELETE /teams/{id}}
+     * @return ResponseEntity containing a Map with success status, message and the job,
+     *         or a 404 response if the job is unknown
+     */
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<Map<String, Object>> getDeletionJob(@PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+
+        Optional<TeamDeletionJob> job = teamDeletionService.findById(jobId);
+        if (job.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Nie znaleziono zadania usuwania o identyfikatorze " + jobId + ".");
+            return ResponseEntity.status(404).body(response);
+        }
+
+        response.put("success", true);
+        response.put("message", "Status usuwania zespołu został pobrany.");
+        response.put("data", job.get());
+        return ResponseEntity.ok(response);
+    }
+
 
 
     /**
      * Adds a new team using the provided team data.
      *
      * @param dto a TeamRequestDTO object containing team information such as the team's name
-     * @return a ResponseEntity object containing a response map with success status, message, and data;
+     * @return a ResponseEntity object containing a response map with success status, message, and data
+     *         holding the saved team with its generated ID;
      *         returns HTTP 200 if the operation is successful, HTTP 400 for invalid input,
      *         or HTTP 500 if an unexpected error occurs
      */
@@ -121,12 +418,8 @@ public class TeamController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            Team team = new Team(
-                    0, // ID will be auto-generated
-                    dto.getName()
-            );
-
-            teamRepository.save(team);
+            // The ID generated by the database is set on the saved team
+            Team team = teamRepository.save(new Team(0, dto.getName()));
 
             response.put("success", true);
             response.put("message", "Nowy zespół " + team.getName() + " został pomyślnie dodany.");
@@ -152,20 +445,26 @@ public class TeamController {
      * Updates an existing team's details in the database based on the provided ID
      * and the new team information from the request body.
      *
-     * @param id the unique identifier of the team to be updated
-     * @param dto the new data for the team encapsulated in a TeamRequestDTO object
+     * The update only succeeds if the team was not changed since it was read,
+     * otherwise 409 Conflict is returned. Clients can pin the version they have
+     * shown to the user by sending its ETag in the {@code If-Match} header.
+     *
+     * @param id      the unique identifier of the team to be updated
+     * @param dto     the new data for the team encapsulated in a TeamRequestDTO object
+     * @param ifMatch the ETag of the version the changes are based on, or null
      * @return a ResponseEntity containing a response map with the success status,
      *         a message, and optionally the updated team object or error details
      */
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateTeam(
             @PathVariable int id,
-            @Valid @RequestBody TeamRequestDTO dto) {
+            @Valid @RequestBody TeamRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            // Check if the team exists
-            Optional<Team> optionalTeam = this.teamRepository.findById(id);
+            // Check if the team exists, reading its current version past the cache
+            Optional<Team> optionalTeam = this.teamRepository.findCurrentById(id);
             if (optionalTeam.isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Zespół o ID " + id + " nie został znaleziony.");
@@ -173,6 +472,11 @@ public class TeamController {
             }
 
             Team existingTeam = optionalTeam.get();
+            if (!EntityTag.matches(ifMatch, existingTeam.getVersion())) {
+                response.put("success", false);
+                response.put("message", conflictMessage(id));
+                return ResponseEntity.status(409).eTag(EntityTag.of(existingTeam.getVersion())).body(response);
+            }
             String oldTeamName = existingTeam.getName();
 
             // Update the team name
@@ -185,13 +489,23 @@ public class TeamController {
                 response.put("success", true);
                 response.put("message", "Zespół " + oldTeamName + " został zaktualizowany na " + newTeamName + ".");
                 response.put("data", existingTeam);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(EntityTag.of(existingTeam.getVersion())).body(response);
             } else {
                 response.put("success", false);
                 response.put("message", "Nie udało się zaktualizować zespołu o ID " + id + ".");
                 return ResponseEntity.status(400).body(response);
             }
 
+        } catch (OptimisticLockingFailureException ex) {
+            // Another request updated or deleted the team after it was read
+            response.put("success", false);
+            response.put("message", conflictMessage(id));
+            return ResponseEntity.status(409).body(response);
+        } catch (IllegalArgumentException ex) {
+            // Malformed If-Match header
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return ResponseEntity.status(400).body(response);
         } catch (Exception ex) {
             response.put("success", false);
             response.put("message", "Wystąpił nieoczekiwany błąd podczas aktualizowania zespołu.");
@@ -199,4 +513,8 @@ public class TeamController {
             return ResponseEntity.status(500).body(response);
         }
     }
-}
\ No newline at end of file
+
+    private static String conflictMessage(int id) {
+        return "Zespół o ID " + id + " został w międzyczasie zmieniony. Pobierz aktualne dane i spróbuj ponownie.";
+    }
+}
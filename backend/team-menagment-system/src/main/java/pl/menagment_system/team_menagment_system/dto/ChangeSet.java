@@ -0,0 +1,44 @@
+package pl.menagment_system.team_menagment_system.dto;
+
+import java.util.List;
+
+/**
+ * A Data Transfer Object (DTO) class holding the changes of one entity type
+ * recorded after a given version of the change log.
+ *
+ * Every changed row appears once: created and updated rows in their current
+ * state, deleted rows by ID only. The version is passed as {@code since} to
+ * fetch the following changes.
+ *
+ * @param <T> the type of the changed rows
+ */
+public class ChangeSet<T> {
+
+    private final List<T> upserted;
+    private final List<Integer> deleted;
+    private final long version;
+    private final boolean hasMore;
+
+    public ChangeSet(List<T> upserted, List<Integer> deleted, long version, boolean hasMore) {
+        this.upserted = upserted;
+        this.deleted = deleted;
+        this.version = version;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getUpserted() {
+        return upserted;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
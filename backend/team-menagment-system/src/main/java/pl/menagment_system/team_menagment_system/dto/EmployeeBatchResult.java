@@ -0,0 +1,85 @@
+package pl.menagment_system.team_menagment_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import pl.menagment_system.team_menagment_system.model.Employee;
+
+import java.util.Map;
+
+/**
+ * A Data Transfer Object (DTO) class describing the outcome of a single row
+ * of a bulk employee import.
+ *
+ * A successful row carries the created employee and the ID of its notification,
+ * a failed row carries a message and, for validation failures, the errors of
+ * the invalid fields.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeBatchResult {
+
+    private final int index;
+    private final boolean success;
+    private final String message;
+    private final Map<String, String> errors;
+    private final Employee data;
+    private final String notificationId;
+
+    private EmployeeBatchResult(int index, boolean success, String message, Map<String, String> errors,
+            Employee data, String notificationId) {
+        this.index = index;
+        this.success = success;
+        this.message = message;
+        this.errors = errors;
+        this.data = data;
+        this.notificationId = notificationId;
+    }
+
+    /**
+     * Creates the result of a row that was stored.
+     *
+     * @param index          the position of the row in the request
+     * @param employee       the created employee
+     * @param notificationId the ID of the notification sent to the employee
+     * @return the result of the row
+     */
+    public static EmployeeBatchResult created(int index, Employee employee, String notificationId) {
+        String fullName = employee.getFirstName() + " " + employee.getLastName();
+        return new EmployeeBatchResult(index, true, "Pracownik " + fullName + " został dodany.", null,
+                employee, notificationId);
+    }
+
+    /**
+     * Creates the result of a row that was rejected.
+     *
+     * @param index   the position of the row in the request
+     * @param message the reason of the rejection
+     * @param errors  the validation errors of the invalid fields, or null
+     * @return the result of the row
+     */
+    public static EmployeeBatchResult failed(int index, String message, Map<String, String> errors) {
+        return new EmployeeBatchResult(index, false, message, errors, null, null);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public Employee getData() {
+        return data;
+    }
+
+    public String getNotificationId() {
+        return notificationId;
+    }
+}
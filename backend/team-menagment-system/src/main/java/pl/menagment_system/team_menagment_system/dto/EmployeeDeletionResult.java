@@ -0,0 +1,32 @@
+package pl.menagment_system.team_menagment_system.dto;
+
+import pl.menagment_system.team_menagment_system.model.Employee;
+
+import java.util.List;
+
+/**
+ * A Data Transfer Object (DTO) class describing the outcome of deleting a group
+ * of employees.
+ *
+ * The requested employee IDs are split into the employees that were deleted,
+ * returned with their data as it was before the deletion, and the IDs that do
+ * not match any employee.
+ */
+public class EmployeeDeletionResult {
+
+    private final List<Employee> deleted;
+    private final List<Integer> notFound;
+
+    public EmployeeDeletionResult(List<Employee> deleted, List<Integer> notFound) {
+        this.deleted = deleted;
+        this.notFound = notFound;
+    }
+
+    public List<Employee> getDeleted() {
+        return deleted;
+    }
+
+    public List<Integer> getNotFound() {
+        return notFound;
+    }
+}
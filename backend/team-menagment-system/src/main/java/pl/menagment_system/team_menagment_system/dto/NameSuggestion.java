@@ -0,0 +1,24 @@
+package pl.menagment_system.team_menagment_system.dto;
+
+/**
+ * A Data Transfer Object (DTO) class representing a single autocomplete
+ * suggestion: the ID of an employee or a team and its display name.
+ */
+public class NameSuggestion {
+
+    private final int id;
+    private final String name;
+
+    public NameSuggestion(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
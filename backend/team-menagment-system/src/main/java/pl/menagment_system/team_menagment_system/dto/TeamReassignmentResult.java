@@ -0,0 +1,47 @@
+package pl.menagment_system.team_menagment_system.dto;
+
+import pl.menagment_system.team_menagment_system.model.Employee;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Data Transfer Object (DTO) class describing the outcome of moving a group
+ * of employees to a team.
+ *
+ * The requested employee IDs are split into the employees that were moved,
+ * the employees that already belonged to the team and the IDs that do not
+ * match any employee. Every moved employee is notified, and the ID of the
+ * notification is stored under the ID of the employee.
+ */
+public class TeamReassignmentResult {
+
+    private final List<Employee> moved;
+    private final Map<Integer, String> notificationIds;
+    private final List<Integer> alreadyMembers;
+    private final List<Integer> notFound;
+
+    public TeamReassignmentResult(List<Employee> moved, Map<Integer, String> notificationIds,
+            List<Integer> alreadyMembers, List<Integer> notFound) {
+        this.moved = moved;
+        this.notificationIds = notificationIds;
+        this.alreadyMembers = alreadyMembers;
+        this.notFound = notFound;
+    }
+
+    public List<Employee> getMoved() {
+        return moved;
+    }
+
+    public Map<Integer, String> getNotificationIds() {
+        return notificationIds;
+    }
+
+    public List<Integer> getAlreadyMembers() {
+        return alreadyMembers;
+    }
+
+    public List<Integer> getNotFound() {
+        return notFound;
+    }
+}
@@ -0,0 +1,59 @@
+package pl.menagment_system.team_menagment_system.model;
+
+import java.sql.Timestamp;
+
+/**
+ * The ChangeLogEntry class represents a single recorded change of an employee
+ * or a team: either an upsert of the current row or a tombstone of a deleted one.
+ */
+public class ChangeLogEntry {
+
+    public static final String EMPLOYEE = "EMPLOYEE";
+    public static final String TEAM = "TEAM";
+
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private final long version;
+    private final String entity;
+    private final int entityId;
+    private final String operation;
+    private final Timestamp changedAt;
+
+    /**
+     * Constructs a new ChangeLogEntry object with all attributes.
+     *
+     * @param version   the monotonically increasing version of the change
+     * @param entity    the type of the changed row, {@link #EMPLOYEE} or {@link #TEAM}
+     * @param entityId  the ID of the changed row
+     * @param operation the kind of the change, {@link #UPSERT} or {@link #DELETE}
+     * @param changedAt the time the change was recorded
+     */
+    public ChangeLogEntry(long version, String entity, int entityId, String operation, Timestamp changedAt) {
+        this.version = version;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Timestamp getChangedAt() {
+        return changedAt;
+    }
+}
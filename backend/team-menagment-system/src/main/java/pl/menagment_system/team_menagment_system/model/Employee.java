@@ -16,6 +16,8 @@ public class Employee {
     private Date hireDate;
     private String role;
     private int teamId;
+    // Incremented by every update, starts at 0 for a new employee
+    private int version;
 
     /**
      * Constructs a new Employee object with all attributes.
@@ -103,4 +105,12 @@ public class Employee {
     public int getTeamId() {
         return teamId;
     }
-}
\ No newline at end of file
+
+    public void setVersion(Object value) {
+        this.version = (int) value;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,49 @@
+package pl.menagment_system.team_menagment_system.model;
+
+/**
+ * The EntityChangedEvent class represents the creation, update or deletion of an
+ * employee or a team. It is published by the repositories as an application event
+ * and pushed to the subscribers of the event stream once the write is committed.
+ */
+public class EntityChangedEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final String entity;
+    private final String type;
+    private final int id;
+    private final Object data;
+
+    /**
+     * Constructs a new EntityChangedEvent object with all attributes.
+     *
+     * @param entity the type of the changed row, {@link ChangeLogEntry#EMPLOYEE} or {@link ChangeLogEntry#TEAM}
+     * @param type   the kind of the change, {@link #CREATED}, {@link #UPDATED} or {@link #DELETED}
+     * @param id     the ID of the changed row
+     * @param data   the current state of the row, or null for deletions
+     */
+    public EntityChangedEvent(String entity, String type, int id, Object data) {
+        this.entity = entity;
+        this.type = type;
+        this.id = id;
+        this.data = data;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Object getData() {
+        return data;
+    }
+}
@@ -0,0 +1,49 @@
+package pl.menagment_system.team_menagment_system.model;
+
+/**
+ * The NotificationStatus class represents the delivery state of the email and
+ * SMS notifications sent for a single employee change.
+ *
+ * Each channel starts as {@code PENDING} and becomes {@code SUCCESS} or
+ * {@code FAILED} once the email or SMS service reports the result.
+ */
+public class NotificationStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private volatile String emailStatus;
+    private volatile String smsStatus;
+
+    /**
+     * Constructs a new NotificationStatus with both channels pending.
+     *
+     * @param id the unique identifier of the notification
+     */
+    public NotificationStatus(String id) {
+        this.id = id;
+        this.emailStatus = PENDING;
+        this.smsStatus = PENDING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setEmailStatus(String emailStatus) {
+        this.emailStatus = emailStatus;
+    }
+
+    public String getEmailStatus() {
+        return emailStatus;
+    }
+
+    public void setSmsStatus(String smsStatus) {
+        this.smsStatus = smsStatus;
+    }
+
+    public String getSmsStatus() {
+        return smsStatus;
+    }
+}
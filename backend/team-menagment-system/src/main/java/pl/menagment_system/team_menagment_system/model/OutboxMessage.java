@@ -0,0 +1,49 @@
+package pl.menagment_system.team_menagment_system.model;
+
+import java.util.Map;
+
+/**
+ * The OutboxMessage class represents a notification stored in the employee outbox
+ * until it is published to the message broker.
+ */
+public class OutboxMessage {
+
+    public static final String EMAIL = "EMAIL";
+    public static final String SMS = "SMS";
+
+    private final long id;
+    private final String notificationId;
+    private final String channel;
+    private final Map<String, String> payload;
+
+    /**
+     * Constructs a new OutboxMessage object with all attributes.
+     *
+     * @param id             the unique identifier of the outbox row
+     * @param notificationId the ID under which the delivery status is tracked
+     * @param channel        the notification channel, {@link #EMAIL} or {@link #SMS}
+     * @param payload        the notification data sent to the email or SMS service
+     */
+    public OutboxMessage(long id, String notificationId, String channel, Map<String, String> payload) {
+        this.id = id;
+        this.notificationId = notificationId;
+        this.channel = channel;
+        this.payload = payload;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNotificationId() {
+        return notificationId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public Map<String, String> getPayload() {
+        return payload;
+    }
+}
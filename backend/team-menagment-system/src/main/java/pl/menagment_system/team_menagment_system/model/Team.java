@@ -9,6 +9,8 @@ public class Team {
 
     private int id;
     private String name;
+    // Incremented by every update, starts at 0 for a new team
+    private int version;
 
     public Team(int id, String name) {
         this.id = id;
@@ -30,4 +32,12 @@ public class Team {
     public String getName() {
         return name;
     }
-}
\ No newline at end of file
+
+    public void setVersion(Object value) {
+        this.version = (int) value;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,83 @@
+package pl.menagment_system.team_menagment_system.model;
+
+/**
+ * The TeamDeletionJob class represents the progress of the background deletion
+ * of a team with many members.
+ *
+ * A job starts as {@code PENDING}, is {@code RUNNING} while the members are
+ * deleted chunk by chunk, and ends as {@code COMPLETED} once the team row is
+ * deleted, or {@code FAILED} with the error that stopped it.
+ */
+public class TeamDeletionJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private final int teamId;
+    private final String teamName;
+    private volatile String status;
+    private volatile int totalMembers;
+    private volatile int deletedMembers;
+    private volatile String error;
+
+    /**
+     * Constructs a new pending TeamDeletionJob.
+     *
+     * @param id       the unique identifier of the job
+     * @param teamId   the ID of the team to delete
+     * @param teamName the name of the team to delete
+     */
+    public TeamDeletionJob(String id, int teamId, String teamName) {
+        this.id = id;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.status = PENDING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getTeamId() {
+        return teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalMembers() {
+        return totalMembers;
+    }
+
+    public void setTotalMembers(int totalMembers) {
+        this.totalMembers = totalMembers;
+    }
+
+    public int getDeletedMembers() {
+        return deletedMembers;
+    }
+
+    public void setDeletedMembers(int deletedMembers) {
+        this.deletedMembers = deletedMembers;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,138 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository class for the change log, a versioned record of every employee and
+ * team write. The employee and team repositories add an entry in the transaction
+ * of the write, so the log and the tables are always committed together.
+ */
+@Repository
+@Profile("!reactive")
+public class ChangeLogRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ChangeLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records a change of a single row.
+     *
+     * @param entity    the type of the changed row, {@link ChangeLogEntry#EMPLOYEE} or {@link ChangeLogEntry#TEAM}
+     * @param entityId  the ID of the changed row
+     * @param operation the kind of the change, {@link ChangeLogEntry#UPSERT} or {@link ChangeLogEntry#DELETE}
+     */
+    public void record(String entity, int entityId, String operation) {
+        String sql = "INSERT INTO change_log (entity, entity_id, operation) VALUES (?, ?, ?)";
+        jdbcTemplate.update(sql, entity, entityId, operation);
+    }
+
+    /**
+     * Records the same change of several rows with a single JDBC batch.
+     *
+     * @param entity    the type of the changed rows
+     * @param entityIds the IDs of the changed rows
+     * @param operation the kind of the change
+     */
+    public void recordAll(String entity, Collection<Integer> entityIds, String operation) {
+        String sql = "INSERT INTO change_log (entity, entity_id, operation) VALUES (?, ?, ?)";
+        List<Object[]> rows = entityIds.stream()
+                .map(id -> new Object[]{entity, id, operation})
+                .toList();
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * Retrieves the changes recorded after the given version.
+     *
+     * @param since the last version already known to the caller
+     * @param limit the maximum number of changes to return
+     * @return a list of ChangeLogEntry objects ordered by version
+     */
+    public List<ChangeLogEntry> findSince(long since, int limit) {
+        String sql = "SELECT * FROM change_log WHERE version > ? ORDER BY version LIMIT ?";
+        return jdbcTemplate.query(sql, new ChangeLogEntryRowMapper(), since, limit);
+    }
+
+    /**
+     * Retrieves the oldest version still kept in the log.
+     *
+     * @return the oldest version, or 0 if the log is empty
+     */
+    public long findOldestVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT MIN(version) FROM change_log", Long.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Retrieves the most recent version recorded in the log.
+     *
+     * @return the latest version, or 0 if the log is empty
+     */
+    public long findLatestVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT MAX(version) FROM change_log", Long.class);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Checks whether a change between the given versions exists or is still being
+     * written. A row inserted by an open transaction keeps its exclusive lock until
+     * the commit, so the locking read fails immediately instead of skipping it.
+     *
+     * @param after  the last version before the range
+     * @param before the first version after the range
+     * @return true if a version in the range is committed or locked by an open transaction,
+     *         false if the range holds no change and none can appear any more
+     */
+    public boolean existsBetween(long after, long before) {
+        String sql = "SELECT COUNT(*) FROM change_log WHERE version > ? AND version < ? FOR SHARE NOWAIT";
+        try {
+            Long count = jdbcTemplate.queryForObject(sql, Long.class, after, before);
+            return count != null && count > 0;
+        } catch (PessimisticLockingFailureException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the changes recorded before the given time.
+     *
+     * @param before the cut-off time
+     * @return the number of rows affected
+     */
+    public int deleteOlderThan(Timestamp before) {
+        String sql = "DELETE FROM change_log WHERE changed_at < ?";
+        return jdbcTemplate.update(sql, before);
+    }
+
+    /**
+     * RowMapper implementation for mapping rows of the change_log table to ChangeLogEntry objects.
+     */
+    private static class ChangeLogEntryRowMapper implements RowMapper<ChangeLogEntry> {
+        @Override
+        public ChangeLogEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new ChangeLogEntry(
+                    rs.getLong("version"),
+                    rs.getString("entity"),
+                    rs.getInt("entity_id"),
+                    rs.getString("operation"),
+                    rs.getTimestamp("changed_at")
+            );
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Describes the columns of a table that can be selected one by one, keyed by the
+ * names of the properties they are serialized as.
+ *
+ * A projection selects a subset of the columns for the {@code fields} parameter
+ * of the read endpoints. Its columns are written into the SELECT list of the
+ * query and its row mapper reads only these columns into a map, so neither the
+ * database nor the JSON response carry the properties the caller did not ask
+ * for. The {@code id} property is always selected, because the rows are
+ * identified and paginated by it.
+ */
+public final class ColumnProjection {
+
+    private static final String ID = "id";
+
+    private final Map<String, Column> columns;
+
+    private ColumnProjection(Map<String, Column> columns) {
+        this.columns = Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Starts the description of the selectable columns of a table.
+     *
+     * @return a builder of the full projection
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the projection of the requested properties.
+     *
+     * @param fields the comma-separated property names, e.g. {@code id,firstName,lastName}
+     * @return the projection of the requested properties and the {@code id} property,
+     *         in the order of the table
+     * @throws IllegalArgumentException if a property is unknown or no property is given
+     */
+    public ColumnProjection select(String fields) {
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Parametr fields nie może być pusty.");
+        }
+        for (String field : requested) {
+            if (!columns.containsKey(field)) {
+                throw new IllegalArgumentException("Nieznane pole: " + field + ". Dostępne pola: "
+                        + String.join(", ", columns.keySet()) + ".");
+            }
+        }
+
+        Map<String, Column> selected = new LinkedHashMap<>();
+        columns.forEach((property, column) -> {
+            if (property.equals(ID) || requested.contains(property)) {
+                selected.put(property, column);
+            }
+        });
+        return new ColumnProjection(selected);
+    }
+
+    /**
+     * Returns the names of the selected properties.
+     *
+     * @return the property names in the order of the table
+     */
+    public Set<String> properties() {
+        return columns.keySet();
+    }
+
+    /**
+     * Returns the SELECT list of the projection.
+     *
+     * @return the comma-separated column names
+     */
+    String selectList() {
+        return columns.values().stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the selected columns keyed by the property names.
+     *
+     * @return the column names in the order of the table
+     */
+    Map<String, String> columnNames() {
+        Map<String, String> names = new LinkedHashMap<>();
+        columns.forEach((property, column) -> names.put(property, column.name()));
+        return names;
+    }
+
+    /**
+     * Returns a row mapper reading the selected columns into a map keyed by
+     * the property names, in the order of the table.
+     *
+     * @return the row mapper of the projection
+     */
+    RowMapper<Map<String, Object>> rowMapper() {
+        return (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                row.put(entry.getKey(), entry.getValue().reader().read(rs, entry.getValue().name()));
+            }
+            return row;
+        };
+    }
+
+    /**
+     * Reads the value of a column with the getter matching the type of the property,
+     * so a projected row is serialized like the full entity.
+     */
+    @FunctionalInterface
+    interface ColumnReader {
+        Object read(ResultSet rs, String column) throws SQLException;
+    }
+
+    private record Column(String name, ColumnReader reader) {
+    }
+
+    static final class Builder {
+
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        Builder column(String property, String column, ColumnReader reader) {
+            columns.put(property, new Column(column, reader));
+            return this;
+        }
+
+        ColumnProjection build() {
+            if (!columns.containsKey(ID)) {
+                throw new IllegalStateException("A projection requires the " + ID + " property.");
+            }
+            return new ColumnProjection(new LinkedHashMap<>(columns));
+        }
+    }
+}
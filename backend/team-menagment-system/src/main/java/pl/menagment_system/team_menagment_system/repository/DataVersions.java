@@ -0,0 +1,80 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing data versions of the employees and teams tables,
+ * used as strong ETags of the list endpoints.
+ *
+ * The repositories bump a version on every write. Inside a transaction it is
+ * bumped again after commit, so a response read before the commit can never
+ * be tagged with the version of the committed data. The versions live in
+ * memory, so every ETag also contains the start time of the application and
+ * is invalidated by a restart.
+ */
+@Component
+@Profile("!reactive")
+public class DataVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong employees = new AtomicLong();
+    private final AtomicLong teams = new AtomicLong();
+
+    /**
+     * Marks the employees table as changed.
+     */
+    public void employeesChanged() {
+        bump(employees);
+    }
+
+    /**
+     * Marks the teams table as changed.
+     */
+    public void teamsChanged() {
+        bump(teams);
+    }
+
+    /**
+     * Returns the ETag of responses built from the employees table.
+     *
+     * @return the quoted ETag value
+     */
+    public String employeesETag() {
+        return "\"e" + epoch + "." + employees.get() + "\"";
+    }
+
+    /**
+     * Returns the ETag of responses built from the teams table.
+     *
+     * @return the quoted ETag value
+     */
+    public String teamsETag() {
+        return "\"t" + epoch + "." + teams.get() + "\"";
+    }
+
+    /**
+     * Returns the ETag of responses built from both tables, such as the members of a team.
+     *
+     * @return the quoted ETag value
+     */
+    public String teamEmployeesETag() {
+        return "\"te" + epoch + "." + teams.get() + "." + employees.get() + "\"";
+    }
+
+    private static void bump(AtomicLong version) {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -1,32 +1,86 @@
 package pl.menagment_system.team_menagment_system.repository;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
 import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repository class that provides CRUD operations for the Employee entity using JdbcTemplate.
  */
 @Repository
+@Profile("!reactive")
 public class EmployeeRepository {
 
+    // Upper bound of the parameters of a single IN (...) list
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    /**
+     * The columns of the employees table that can be selected with the {@code fields} parameter.
+     */
+    public static final ColumnProjection COLUMNS = ColumnProjection.builder()
+            .column("id", "ID", ResultSet::getInt)
+            .column("firstName", "first_name", ResultSet::getString)
+            .column("lastName", "last_name", ResultSet::getString)
+            .column("email", "email", ResultSet::getString)
+            .column("phone", "phone", ResultSet::getString)
+            .column("hireDate", "hire_date", ResultSet::getDate)
+            .column("role", "role", ResultSet::getString)
+            .column("teamId", "team_id", ResultSet::getInt)
+            .column("version", "version", ResultSet::getInt)
+            .build();
+
     private final JdbcTemplate jdbcTemplate;
+    private final DataVersions dataVersions;
+    private final ChangeLogRepository changeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeStatistics statistics;
 
     /**
      * Constructs a new EmployeeRepository with the specified JdbcTemplate.
      *
-     * @param jdbcTemplate the JdbcTemplate for interacting with the database
+     * @param jdbcTemplate   the JdbcTemplate for interacting with the database
+     * @param dataVersions   the data versions bumped on every write
+     * @param changeLog      the change log recording every write
+     * @param eventPublisher the publisher of the EntityChangedEvent of every write
+     * @param statistics     the headcount statistics updated on every write
      */
     @Autowired
-    public EmployeeRepository(JdbcTemplate jdbcTemplate) {
+    public EmployeeRepository(JdbcTemplate jdbcTemplate, DataVersions dataVersions, ChangeLogRepository changeLog,
+            ApplicationEventPublisher eventPublisher, EmployeeStatistics statistics) {
         this.jdbcTemplate = jdbcTemplate;
+        this.dataVersions = dataVersions;
+        this.changeLog = changeLog;
+        this.eventPublisher = eventPublisher;
+        this.statistics = statistics;
     }
 
     /**
@@ -39,6 +93,143 @@ public class EmployeeRepository {
         return jdbcTemplate.query(sql, new EmployeeRowMapper());
     }
 
+    /**
+     * Passes every employee to the given consumer while the rows are read from the
+     * database. The MySQL driver streams the result set row by row instead of
+     * buffering it, so memory use does not depend on the number of employees.
+     * The connection is busy until the consumer has processed the last row.
+     *
+     * @param consumer the consumer receiving the employees in ID order
+     */
+    public void streamAll(Consumer<Employee> consumer) {
+        String sql = "SELECT * FROM employees ORDER BY ID";
+        EmployeeRowMapper rowMapper = new EmployeeRowMapper();
+        RowCallbackHandler handler = rs -> consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Integer.MIN_VALUE switches MySQL Connector/J to row-by-row streaming
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Retrieves one page of employees ordered by ID, starting after the given ID.
+     * The keyset condition lets the database seek straight to the first row of
+     * the page through the primary key instead of skipping an offset.
+     *
+     * @param afterId the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit   the maximum number of employees to return
+     * @return a list of at most {@code limit} Employee objects
+     */
+    public List<Employee> findPage(int afterId, int limit) {
+        String sql = "SELECT * FROM employees WHERE ID > ? ORDER BY ID LIMIT ?";
+        return jdbcTemplate.query(sql, new EmployeeRowMapper(), afterId, limit);
+    }
+
+    /**
+     * Retrieves all employees that belong to the given team.
+     *
+     * @param teamId the ID of the team
+     * @return a list of Employee objects ordered by ID
+     */
+    public List<Employee> findByTeamId(int teamId) {
+        String sql = "SELECT * FROM employees WHERE team_id = ? ORDER BY ID";
+        return jdbcTemplate.query(sql, new EmployeeRowMapper(), teamId);
+    }
+
+    /**
+     * Retrieves one page of the employees of the given team, ordered by ID and
+     * starting after the given ID. Served by the (team_id, ID) index.
+     *
+     * @param teamId  the ID of the team
+     * @param afterId the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit   the maximum number of employees to return
+     * @return a list of at most {@code limit} Employee objects
+     */
+    public List<Employee> findPageByTeamId(int teamId, int afterId, int limit) {
+        String sql = "SELECT * FROM employees WHERE team_id = ? AND ID > ? ORDER BY ID LIMIT ?";
+        return jdbcTemplate.query(sql, new EmployeeRowMapper(), teamId, afterId, limit);
+    }
+
+    /**
+     * Counts the employees of the given team. Served by the (team_id, ID) index.
+     *
+     * @param teamId the ID of the team
+     * @return the number of employees of the team
+     */
+    public int countByTeamId(int teamId) {
+        String sql = "SELECT COUNT(*) FROM employees WHERE team_id = ?";
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, teamId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Retrieves the IDs of the first employees of the given team, ordered by ID, and
+     * locks their rows until the end of the current transaction. Must be called inside
+     * a transaction.
+     *
+     * @param teamId the ID of the team
+     * @param limit  the maximum number of IDs to return
+     * @return a list of at most {@code limit} employee IDs
+     */
+    public List<Integer> lockIdsByTeamId(int teamId, int limit) {
+        String sql = "SELECT ID FROM employees WHERE team_id = ? ORDER BY ID LIMIT ? FOR UPDATE";
+        return jdbcTemplate.queryForList(sql, Integer.class, teamId, limit);
+    }
+
+    /**
+     * Retrieves the selected columns of all employees.
+     *
+     * @param projection the columns to read, see {@link #COLUMNS}
+     * @return a list of rows keyed by property name
+     */
+    public List<Map<String, Object>> findAll(ColumnProjection projection) {
+        String sql = "SELECT " + projection.selectList() + " FROM employees";
+        return jdbcTemplate.query(sql, projection.rowMapper());
+    }
+
+    /**
+     * Retrieves the selected columns of one page of employees, like {@link #findPage(int, int)}.
+     *
+     * @param afterId    the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit      the maximum number of employees to return
+     * @param projection the columns to read, see {@link #COLUMNS}
+     * @return a list of at most {@code limit} rows keyed by property name
+     */
+    public List<Map<String, Object>> findPage(int afterId, int limit, ColumnProjection projection) {
+        String sql = "SELECT " + projection.selectList() + " FROM employees WHERE ID > ? ORDER BY ID LIMIT ?";
+        return jdbcTemplate.query(sql, projection.rowMapper(), afterId, limit);
+    }
+
+    /**
+     * Retrieves the selected columns of the employees of the given team.
+     *
+     * @param teamId     the ID of the team
+     * @param projection the columns to read, see {@link #COLUMNS}
+     * @return a list of rows keyed by property name, ordered by ID
+     */
+    public List<Map<String, Object>> findByTeamId(int teamId, ColumnProjection projection) {
+        String sql = "SELECT " + projection.selectList() + " FROM employees WHERE team_id = ? ORDER BY ID";
+        return jdbcTemplate.query(sql, projection.rowMapper(), teamId);
+    }
+
+    /**
+     * Retrieves the selected columns of one page of the employees of the given team,
+     * like {@link #findPageByTeamId(int, int, int)}.
+     *
+     * @param teamId     the ID of the team
+     * @param afterId    the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit      the maximum number of employees to return
+     * @param projection the columns to read, see {@link #COLUMNS}
+     * @return a list of at most {@code limit} rows keyed by property name
+     */
+    public List<Map<String, Object>> findPageByTeamId(int teamId, int afterId, int limit, ColumnProjection projection) {
+        String sql = "SELECT " + projection.selectList() + " FROM employees WHERE team_id = ? AND ID > ? ORDER BY ID LIMIT ?";
+        return jdbcTemplate.query(sql, projection.rowMapper(), teamId, afterId, limit);
+    }
+
     /**
      * Retrieves an employee from the database by their ID.
      *
@@ -52,38 +243,288 @@ public class EmployeeRepository {
     }
 
     /**
-     * Inserts a new Employee into the database.
+     * Retrieves the employees with the given IDs and locks their rows until the end
+     * of the current transaction, so they cannot change before a following bulk update.
+     * Must be called inside a transaction.
+     *
+     * @param ids the IDs of the employees to retrieve
+     * @return a list of the Employee objects that exist, ordered by ID within each chunk
+     */
+    public List<Employee> findByIdsForUpdate(Collection<Integer> ids) {
+        return findByIds(ids, " FOR UPDATE");
+    }
+
+    /**
+     * Retrieves the employees with the given IDs.
+     *
+     * @param ids the IDs of the employees to retrieve
+     * @return a list of the Employee objects that exist, ordered by ID within each chunk
+     */
+    public List<Employee> findByIds(Collection<Integer> ids) {
+        return findByIds(ids, "");
+    }
+
+    private List<Employee> findByIds(Collection<Integer> ids, String lockClause) {
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        List<Employee> employees = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+            String sql = "SELECT * FROM employees WHERE ID IN (" + placeholders(chunk.size()) + ") ORDER BY ID" + lockClause;
+            employees.addAll(jdbcTemplate.query(sql, new EmployeeRowMapper(), chunk.toArray()));
+        }
+        return employees;
+    }
+
+    /**
+     * Checks whether an employee with the given email already exists.
+     * The comparison is case-insensitive and served by the unique index
+     * on the normalized email column.
+     *
+     * @param email the email address to look up
+     * @return true if the email is already in use, false otherwise
+     */
+    public boolean existsByEmail(String email) {
+        String sql = "SELECT EXISTS(SELECT 1 FROM employees WHERE email_normalized = LOWER(?))";
+        Boolean exists = jdbcTemplate.queryForObject(sql, Boolean.class, email);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Finds which of the given email addresses are already in use, with one
+     * set-based query per chunk of {@value #IN_CLAUSE_CHUNK_SIZE} addresses.
+     *
+     * @param emails the email addresses to look up
+     * @return the normalized (lower-cased) addresses that are already in use
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> normalized = emails.stream().map(email -> email.toLowerCase(Locale.ROOT)).distinct().toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < normalized.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = normalized.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, normalized.size()));
+            String sql = "SELECT email_normalized FROM employees WHERE email_normalized IN ("
+                    + placeholders(chunk.size()) + ")";
+            existing.addAll(jdbcTemplate.queryForList(sql, String.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * Retrieves the normalized (lower-cased) email addresses of all employees.
+     *
+     * @return a map of normalized email addresses keyed by employee ID
+     */
+    public Map<Integer, String> findAllNormalizedEmails() {
+        String sql = "SELECT ID, email_normalized FROM employees WHERE email_normalized IS NOT NULL";
+        Map<Integer, String> emails = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> emails.put(rs.getInt("ID"), rs.getString("email_normalized")));
+        return emails;
+    }
+
+    /**
+     * Inserts a new Employee into the database and records it in the change log.
+     * The ID generated by the database is read from the insert statement itself
+     * and set on the given employee.
      *
      * @param employee the Employee to save
-     * @return the number of rows affected
+     * @return the saved employee with its generated ID
+     */
+    @Transactional
+    public Employee save(Employee employee) {
+        String sql = "INSERT INTO employees (first_name, last_name, email, phone, hire_date, role, team_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            new ArgumentPreparedStatementSetter(insertArguments(employee)).setValues(statement);
+            return statement;
+        }, keyHolder);
+        employee.setId(keyHolder.getKeyAs(Number.class).intValue());
+        changeLog.record(ChangeLogEntry.EMPLOYEE, employee.getId(), ChangeLogEntry.UPSERT);
+        dataVersions.employeesChanged();
+        statistics.apply(new EmployeeStatistics.Delta().add(employee, 1));
+        publish(EntityChangedEvent.CREATED, employee);
+        return employee;
+    }
+
+    /**
+     * Inserts several employees with a single JDBC batch. With the
+     * {@code rewriteBatchedStatements} connection option the driver sends the batch
+     * as multi-row INSERT statements. The generated IDs are set on the given employees
+     * and recorded in the change log.
+     *
+     * @param employees the employees to save
+     * @return the number of rows affected by each insert
      */
-    public int save(Employee employee) {
+    @Transactional
+    public int[] saveAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return new int[0];
+        }
         String sql = "INSERT INTO employees (first_name, last_name, email, phone, hire_date, role, team_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(sql, employee.getFirstName(), employee.getLastName(), employee.getEmail(),
-                employee.getPhone(), employee.getHireDate(), employee.getRole(), employee.getTeamId());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] rowsAffected = jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(insertArguments(employees.get(i))).setValues(ps);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return employees.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < employees.size(); i++) {
+            Number key = (Number) keys.get(i).values().iterator().next();
+            employees.get(i).setId(key.intValue());
+        }
+        changeLog.recordAll(ChangeLogEntry.EMPLOYEE, employees.stream().map(Employee::getId).toList(),
+                ChangeLogEntry.UPSERT);
+        dataVersions.employeesChanged();
+        EmployeeStatistics.Delta delta = new EmployeeStatistics.Delta();
+        employees.forEach(employee -> delta.add(employee, 1));
+        statistics.apply(delta);
+        employees.forEach(employee -> publish(EntityChangedEvent.CREATED, employee));
+        return rowsAffected;
     }
 
     /**
-     * Updates an existing Employee in the database.
+     * Updates an existing Employee in the database and records it in the change log.
+     * The row is only updated if its version still equals the version of the given
+     * employee, which is then incremented, so concurrent read-modify-write cycles
+     * cannot overwrite each other.
      *
-     * @param employee the Employee with updated information
+     * @param employee the Employee with updated information and the version it was read with
      * @return the number of rows affected
+     * @throws OptimisticLockingFailureException if the employee was changed or deleted since it was read
      */
+    @Transactional
     public int update(Employee employee) {
-        String sql = "UPDATE employees SET first_name = ?, last_name = ?, email = ?, phone = ?, hire_date = ?, role = ?, team_id = ? WHERE ID = ?";
-        return jdbcTemplate.update(sql, employee.getFirstName(), employee.getLastName(), employee.getEmail(),
-                employee.getPhone(), employee.getHireDate(), employee.getRole(), employee.getTeamId(), employee.getId());
+        // The previous team, role and hire date are counted out of the statistics
+        EmployeeStatistics.Delta delta = statistics.lockAndCount("ID = ?", -1, employee.getId());
+        String sql = "UPDATE employees SET first_name = ?, last_name = ?, email = ?, phone = ?, hire_date = ?, role = ?, team_id = ?, "
+                + "version = version + 1 WHERE ID = ? AND version = ?";
+        int rowsAffected = jdbcTemplate.update(sql, employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getPhone(), employee.getHireDate(), employee.getRole(), employee.getTeamId(), employee.getId(),
+                employee.getVersion());
+        if (rowsAffected == 0) {
+            throw new OptimisticLockingFailureException("Employee " + employee.getId()
+                    + " was changed or deleted since version " + employee.getVersion());
+        }
+        employee.setVersion(employee.getVersion() + 1);
+        changeLog.record(ChangeLogEntry.EMPLOYEE, employee.getId(), ChangeLogEntry.UPSERT);
+        statistics.apply(delta.add(employee, 1));
+        publish(EntityChangedEvent.UPDATED, employee);
+        dataVersions.employeesChanged();
+        return rowsAffected;
     }
 
     /**
-     * Deletes an Employee from the database by ID.
+     * Moves the given employees to another team with one set-based UPDATE per chunk
+     * of {@value #IN_CLAUSE_CHUNK_SIZE} IDs, and records them in the change log.
+     * The new team and version are set on the given employees. The employees are expected to be
+     * existing rows locked by the current transaction, see
+     * {@link #findByIdsForUpdate(Collection)}, as their previous team is taken from them.
+     *
+     * @param teamId    the ID of the new team
+     * @param employees the employees to move
+     * @return the number of rows affected
+     */
+    @Transactional
+    public int updateTeamId(int teamId, List<Employee> employees) {
+        List<Integer> ids = employees.stream().map(Employee::getId).distinct().toList();
+        int rowsAffected = 0;
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            String sql = "UPDATE employees SET team_id = ?, version = version + 1 WHERE ID IN (" + placeholders(chunk.size()) + ")";
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = teamId;
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            rowsAffected += jdbcTemplate.update(sql, args);
+        }
+        changeLog.recordAll(ChangeLogEntry.EMPLOYEE, ids, ChangeLogEntry.UPSERT);
+        dataVersions.employeesChanged();
+        EmployeeStatistics.Delta delta = new EmployeeStatistics.Delta();
+        Set<Integer> counted = new HashSet<>();
+        for (Employee employee : employees) {
+            if (counted.add(employee.getId())) {
+                delta.add(employee, -1);
+                delta.add(teamId, employee.getRole(), EmployeeStatistics.hireYear(employee.getHireDate()), 1);
+            }
+        }
+        statistics.apply(delta);
+        for (Employee employee : employees) {
+            employee.setTeamId(teamId);
+            employee.setVersion(employee.getVersion() + 1);
+            publish(EntityChangedEvent.UPDATED, employee);
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Deletes an Employee from the database by ID and records a tombstone in the change log.
      *
      * @param id the ID of the Employee to delete
      * @return the number of rows affected
      */
+    @Transactional
     public int deleteById(int id) {
+        EmployeeStatistics.Delta delta = statistics.lockAndCount("ID = ?", -1, id);
         String sql = "DELETE FROM employees WHERE ID = ?";
-        return jdbcTemplate.update(sql, id);
+        int rowsAffected = jdbcTemplate.update(sql, id);
+        if (rowsAffected > 0) {
+            changeLog.record(ChangeLogEntry.EMPLOYEE, id, ChangeLogEntry.DELETE);
+            statistics.apply(delta);
+            eventPublisher.publishEvent(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, id, null));
+        }
+        dataVersions.employeesChanged();
+        return rowsAffected;
+    }
+
+    /**
+     * Deletes the employees with the given IDs with one set-based DELETE per chunk
+     * of {@value #IN_CLAUSE_CHUNK_SIZE} IDs, and records a tombstone for each of them
+     * in the change log. The IDs are expected to belong to existing rows locked by
+     * the current transaction, see {@link #findByIdsForUpdate(Collection)}.
+     *
+     * @param ids the IDs of the employees to delete
+     * @return the number of rows affected
+     */
+    @Transactional
+    public int deleteByIds(Collection<Integer> ids) {
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        int rowsAffected = 0;
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+            statistics.apply(statistics.lockAndCount("ID IN (" + placeholders(chunk.size()) + ")", -1, chunk.toArray()));
+            String sql = "DELETE FROM employees WHERE ID IN (" + placeholders(chunk.size()) + ")";
+            rowsAffected += jdbcTemplate.update(sql, chunk.toArray());
+        }
+        if (rowsAffected > 0) {
+            changeLog.recordAll(ChangeLogEntry.EMPLOYEE, distinctIds, ChangeLogEntry.DELETE);
+            distinctIds.forEach(id -> eventPublisher.publishEvent(
+                    new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, id, null)));
+        }
+        dataVersions.employeesChanged();
+        return rowsAffected;
+    }
+
+    private static Object[] insertArguments(Employee employee) {
+        return new Object[]{employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getPhone(), employee.getHireDate(), employee.getRole(), employee.getTeamId()};
+    }
+
+    private void publish(String type, Employee employee) {
+        eventPublisher.publishEvent(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, type, employee.getId(), employee));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 }
 
@@ -93,7 +534,7 @@ public class EmployeeRepository {
 class EmployeeRowMapper implements RowMapper<Employee> {
     @Override
     public Employee mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Employee(
+        Employee employee = new Employee(
                 rs.getInt("ID"),
                 rs.getString("first_name"),
                 rs.getString("last_name"),
@@ -103,5 +544,7 @@ class EmployeeRowMapper implements RowMapper<Employee> {
                 rs.getString("role"),
                 rs.getInt("team_id")
         );
+        employee.setVersion(rs.getInt("version"));
+        return employee;
     }
 }
@@ -0,0 +1,362 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.menagment_system.team_menagment_system.model.Employee;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory headcount statistics of the employees: the headcount of every team,
+ * its role distribution and its hire-year cohorts, and the same totals across
+ * all teams.
+ *
+ * The counters are built from a single GROUP BY query once the application is
+ * ready. After that the EmployeeRepository and TeamRepository describe every
+ * write as a {@link Delta} of the counted groups, which is applied after commit
+ * and dropped on rollback. Deltas only add and subtract counts, so transactions
+ * committing concurrently may apply them in any order: a count may go below zero
+ * for a while, when a removal is applied before the addition it undoes, and is
+ * left out of the statistics until it is positive again. A reload only uses a
+ * query result that no commit overlapped, and the counters are rebuilt
+ * periodically ({@code statistics.rebuild-interval}), so a delta counted twice or
+ * missed by a reload that had to give up does not last. The statistics returned
+ * by {@link #snapshot()} are built once per change and shared by all requests
+ * until the next one, so reading them does not depend on the number of employees.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeStatistics.class);
+
+    // Attempts of a reload to read counters that no commit raced with
+    private static final int LOAD_ATTEMPTS = 3;
+    // How long a reload waits for the commits in progress to apply their deltas
+    private static final long COMMIT_WAIT_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this
+    private final Map<Integer, Counters> teams = new HashMap<>();
+    private final Counters total = new Counters();
+    // Deltas whose transaction started to commit, and those not yet applied or rolled back
+    private long committedDeltas = 0;
+    private int committingDeltas = 0;
+    private boolean loaded = false;
+
+    private volatile Map<String, Object> snapshot;
+
+    public EmployeeStatistics(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads the statistics when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the statistics periodically, correcting any drift left by a reload
+     * that raced with commits.
+     */
+    @Scheduled(initialDelayString = "${statistics.rebuild-interval:3600000}",
+            fixedDelayString = "${statistics.rebuild-interval:3600000}")
+    public void rebuild() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the statistics from the database. A transaction may commit before
+     * the query reads the table and apply its delta only afterwards, so the query
+     * waits for the commits in progress and is repeated if another one started
+     * while it ran. If the database cannot be read, the statistics keep their
+     * current counters, or stay unavailable if they were never loaded.
+     */
+    public void reload() {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long deltasBefore;
+                synchronized (this) {
+                    awaitCommitting();
+                    deltasBefore = committingDeltas == 0 ? committedDeltas : -1;
+                }
+                Delta counts = count(null, false, 1);
+                synchronized (this) {
+                    boolean raced = deltasBefore != committedDeltas;
+                    if (raced && attempt < LOAD_ATTEMPTS) {
+                        continue;
+                    }
+                    if (raced) {
+                        logger.warn("Employee statistics loaded while employees were changing, counts may be off until the next rebuild");
+                    }
+                    teams.clear();
+                    total.clear();
+                    loaded = true;
+                    add(counts);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            logger.warn("Could not load employee statistics: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Counts the employees matching the given condition into a new delta with a
+     * single GROUP BY query, and locks them until the end of the current transaction,
+     * so the counted rows cannot change before they are updated or deleted.
+     *
+     * @param condition the SQL condition of the employees to count
+     * @param sign      1 to count the employees in, -1 to count them out
+     * @param args      the arguments of the condition
+     * @return the delta of the matching employees
+     */
+    public Delta lockAndCount(String condition, int sign, Object... args) {
+        return count(condition, true, sign, args);
+    }
+
+    /**
+     * Applies the given delta once the current transaction commits, or immediately
+     * if there is no transaction. From the start of the commit until the delta is
+     * applied, a reload waits for it.
+     *
+     * @param delta the change of the counted groups
+     */
+    public void apply(Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing = false;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    startCommit();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (committing) {
+                        finishCommit(status == STATUS_COMMITTED ? delta : null);
+                    }
+                }
+            });
+        } else {
+            startCommit();
+            finishCommit(delta);
+        }
+    }
+
+    /**
+     * Returns the current statistics: the total {@code headcount}, the role
+     * distribution ({@code roles}) and hire-year cohorts ({@code hireYears}) of all
+     * employees, and the same values for every team under {@code teams}.
+     *
+     * @return an Optional containing the statistics, or an empty Optional if they are not loaded
+     */
+    public Optional<Map<String, Object>> snapshot() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (!loaded) {
+                    return Optional.empty();
+                }
+                if (snapshot == null) {
+                    snapshot = buildSnapshot();
+                }
+                current = snapshot;
+            }
+        }
+        return Optional.of(current);
+    }
+
+    private Delta count(String condition, boolean lock, int sign, Object... args) {
+        Delta delta = new Delta();
+        String sql = "SELECT team_id, role, YEAR(hire_date) AS hire_year, COUNT(*) AS headcount FROM employees"
+                + (condition != null ? " WHERE " + condition : "")
+                + " GROUP BY team_id, role, YEAR(hire_date)" + (lock ? " FOR UPDATE" : "");
+        jdbcTemplate.query(sql, rs -> {
+            delta.add(rs.getInt("team_id"), rs.getString("role"), rs.getObject("hire_year", Integer.class),
+                    sign * rs.getLong("headcount"));
+        }, args);
+        return delta;
+    }
+
+    private synchronized void startCommit() {
+        committedDeltas++;
+        committingDeltas++;
+    }
+
+    private synchronized void finishCommit(Delta delta) {
+        committingDeltas--;
+        if (delta != null && loaded) {
+            add(delta);
+        }
+        if (committingDeltas == 0) {
+            notifyAll();
+        }
+    }
+
+    // Called while holding the lock of this
+    private void awaitCommitting() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMMIT_WAIT_MILLIS);
+        long remaining;
+        while (committingDeltas > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+    }
+
+    private void add(Delta delta) {
+        delta.counts.forEach((group, count) -> {
+            total.add(group, count);
+            Counters team = teams.computeIfAbsent(group.teamId(), id -> new Counters());
+            team.add(group, count);
+            if (team.isEmpty()) {
+                teams.remove(group.teamId());
+            }
+        });
+        snapshot = null;
+    }
+
+    private Map<String, Object> buildSnapshot() {
+        List<Map<String, Object>> teamStatistics = new ArrayList<>();
+        new TreeMap<>(teams).forEach((teamId, counters) -> {
+            if (counters.headcount <= 0) {
+                return;
+            }
+            Map<String, Object> team = new LinkedHashMap<>();
+            team.put("teamId", teamId);
+            team.putAll(counters.toMap());
+            teamStatistics.add(team);
+        });
+        Map<String, Object> statistics = new LinkedHashMap<>(total.toMap());
+        statistics.put("teams", teamStatistics);
+        return statistics;
+    }
+
+    static Integer hireYear(Date hireDate) {
+        if (hireDate == null) {
+            return null;
+        }
+        if (hireDate instanceof java.sql.Date date) {
+            return date.toLocalDate().getYear();
+        }
+        return LocalDate.ofInstant(hireDate.toInstant(), ZoneId.systemDefault()).getYear();
+    }
+
+    /**
+     * A change of the number of employees in some groups, one group being the
+     * employees of one team with the same role and hire year.
+     */
+    public static final class Delta {
+
+        private final Map<Group, Long> counts = new HashMap<>();
+
+        /**
+         * Counts the given employee in, or out with a negative sign.
+         *
+         * @param employee the employee
+         * @param sign     1 for an added employee, -1 for a removed one
+         * @return this delta
+         */
+        public Delta add(Employee employee, int sign) {
+            return add(employee.getTeamId(), employee.getRole(), hireYear(employee.getHireDate()), sign);
+        }
+
+        /**
+         * Adds the given number of employees to a group.
+         *
+         * @param teamId   the ID of the team
+         * @param role     the role, or null if not set
+         * @param hireYear the hire year, or null if the hire date is not set
+         * @param count    the number of employees, negative for removed ones
+         * @return this delta
+         */
+        public Delta add(int teamId, String role, Integer hireYear, long count) {
+            counts.merge(new Group(teamId, role, hireYear), count, (a, b) -> a + b == 0 ? null : a + b);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return counts.isEmpty();
+        }
+    }
+
+    private record Group(int teamId, String role, Integer hireYear) {
+    }
+
+    private static final class Counters {
+
+        private long headcount;
+        private final Map<String, Long> roles = new HashMap<>();
+        private final Map<Integer, Long> hireYears = new HashMap<>();
+
+        void add(Group group, long count) {
+            headcount += count;
+            if (group.role() != null) {
+                addCount(roles, group.role(), count);
+            }
+            if (group.hireYear() != null) {
+                addCount(hireYears, group.hireYear(), count);
+            }
+        }
+
+        private static <K> void addCount(Map<K, Long> counts, K key, long count) {
+            counts.merge(key, count, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        boolean isEmpty() {
+            return headcount == 0 && roles.isEmpty() && hireYears.isEmpty();
+        }
+
+        void clear() {
+            headcount = 0;
+            roles.clear();
+            hireYears.clear();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("headcount", Math.max(headcount, 0));
+            map.put("roles", positive(roles));
+            map.put("hireYears", positive(hireYears));
+            return map;
+        }
+
+        private static <K> Map<K, Long> positive(Map<K, Long> counts) {
+            Map<K, Long> positive = new TreeMap<>();
+            counts.forEach((key, count) -> {
+                if (count > 0) {
+                    positive.put(key, count);
+                }
+            });
+            return positive;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import pl.menagment_system.team_menagment_system.model.OutboxMessage;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository class for the employee outbox, which stores notifications until the
+ * OutboxRelay publishes them. Rows are written in the transaction of the employee
+ * change they belong to, so a change and its notifications are committed together.
+ */
+@Repository
+@Profile("!reactive")
+public class OutboxRepository {
+
+    private static final TypeReference<Map<String, String>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Adds a notification to the outbox.
+     *
+     * @param notificationId the ID under which the delivery status is tracked
+     * @param channel        the notification channel, {@link OutboxMessage#EMAIL} or {@link OutboxMessage#SMS}
+     * @param payload        the notification data
+     * @return the number of rows affected
+     */
+    public int save(String notificationId, String channel, Map<String, String> payload) {
+        String sql = "INSERT INTO employee_outbox (notification_id, channel, payload) VALUES (?, ?, ?)";
+        return jdbcTemplate.update(sql, notificationId, channel, toJson(payload));
+    }
+
+    /**
+     * Adds several notifications to the outbox with a single JDBC batch.
+     *
+     * @param messages the notifications to add; their IDs are ignored
+     * @return the number of rows affected by each insert
+     */
+    public int[] saveAll(List<OutboxMessage> messages) {
+        String sql = "INSERT INTO employee_outbox (notification_id, channel, payload) VALUES (?, ?, ?)";
+        List<Object[]> rows = messages.stream()
+                .map(message -> new Object[]{message.getNotificationId(), message.getChannel(), toJson(message.getPayload())})
+                .toList();
+        return jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * Retrieves and locks the oldest unpublished notifications. Rows locked by another
+     * relay instance are skipped. Must be called inside a transaction, which holds the
+     * locks until the rows are deleted.
+     *
+     * @param limit the maximum number of notifications to return
+     * @return a list of OutboxMessage objects ordered by ID
+     */
+    public List<OutboxMessage> lockBatch(int limit) {
+        String sql = "SELECT * FROM employee_outbox ORDER BY ID LIMIT ? FOR UPDATE SKIP LOCKED";
+        return jdbcTemplate.query(sql, new OutboxMessageRowMapper(), limit);
+    }
+
+    /**
+     * Deletes published notifications from the outbox.
+     *
+     * @param ids the IDs of the outbox rows to delete
+     * @return the number of rows affected
+     */
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "DELETE FROM employee_outbox WHERE ID IN (" + placeholders + ")";
+        return jdbcTemplate.update(sql, ids.toArray());
+    }
+
+    private String toJson(Map<String, String> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize notification payload.", ex);
+        }
+    }
+
+    /**
+     * RowMapper implementation for mapping rows of the employee_outbox table to OutboxMessage objects.
+     */
+    private class OutboxMessageRowMapper implements RowMapper<OutboxMessage> {
+        @Override
+        public OutboxMessage mapRow(ResultSet rs, int rowNum) throws SQLException {
+            try {
+                return new OutboxMessage(
+                        rs.getLong("ID"),
+                        rs.getString("notification_id"),
+                        rs.getString("channel"),
+                        objectMapper.readValue(rs.getString("payload"), PAYLOAD_TYPE)
+                );
+            } catch (JsonProcessingException ex) {
+                throw new SQLException("Cannot read notification payload of outbox row " + rs.getLong("ID"), ex);
+            }
+        }
+    }
+}
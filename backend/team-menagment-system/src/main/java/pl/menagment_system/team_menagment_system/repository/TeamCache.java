@@ -0,0 +1,124 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.menagment_system.team_menagment_system.model.Team;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded read-through cache of teams used by the TeamRepository.
+ *
+ * Entries expire after a configurable time and are invalidated explicitly when
+ * a team is updated or deleted. Missing teams are never cached, so inserts need
+ * no invalidation. Cached teams are copied on the way in and out,
+ * because callers modify the Team objects they receive. Hits, misses and the
+ * cache size are published as the {@code team.cache.requests} and
+ * {@code team.cache.size} metrics.
+ */
+@Component
+@Profile("!reactive")
+public class TeamCache {
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    // Incremented on every invalidation, so that loads racing with a write are not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TeamCache(MeterRegistry meterRegistry,
+            @Value("${teams.cache.ttl:5m}") Duration ttl,
+            @Value("${teams.cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("team.cache.requests").tag("result", "hit")
+                .description("Team cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("team.cache.requests").tag("result", "miss")
+                .description("Team cache lookups").register(meterRegistry);
+        Gauge.builder("team.cache.size", entries, Map::size)
+                .description("Number of cached teams").register(meterRegistry);
+    }
+
+    /**
+     * Returns the team with the given ID, loading it with the loader if it is
+     * not cached or has expired.
+     *
+     * @param id     the ID of the team
+     * @param loader the function reading the team from the database
+     * @return an Optional containing a copy of the team, or an empty Optional if it does not exist
+     */
+    public Optional<Team> get(int id, IntFunction<Optional<Team>> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(id);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return Optional.of(copy(entry.team()));
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Optional<Team> team = loader.apply(id);
+        if (team.isPresent() && generation.get() == loadGeneration) {
+            if (entries.size() >= maxSize && !entries.containsKey(id)) {
+                evictOldest();
+            }
+            entries.put(id, new Entry(copy(team.get()), now));
+        }
+        return team;
+    }
+
+    /**
+     * Removes the team with the given ID from the cache. Inside a transaction the
+     * entry is removed again after commit, so a concurrent read of the old row
+     * cannot repopulate the cache.
+     *
+     * @param id the ID of the modified team
+     */
+    public void invalidate(int id) {
+        generation.incrementAndGet();
+        entries.remove(id);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            entries.remove(id);
+        });
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().loadedAt(), b.getValue().loadedAt()))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static Team copy(Team team) {
+        Team copy = new Team(team.getId(), team.getName());
+        copy.setVersion(team.getVersion());
+        return copy;
+    }
+
+    private record Entry(Team team, long loadedAt) {
+    }
+}
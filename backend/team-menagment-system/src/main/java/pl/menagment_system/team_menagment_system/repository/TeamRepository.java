@@ -1,14 +1,25 @@
 package pl.menagment_system.team_menagment_system.repository;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
 import pl.menagment_system.team_menagment_system.model.Team;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -16,13 +27,34 @@ import java.util.Optional;
  * Repository class that provides CRUD operations for the Team entity using JdbcTemplate.
  */
 @Repository
+@Profile("!reactive")
 public class TeamRepository {
 
+    /**
+     * The columns of the teams table that can be selected with the {@code fields} parameter.
+     */
+    public static final ColumnProjection COLUMNS = ColumnProjection.builder()
+            .column("id", "ID", ResultSet::getInt)
+            .column("name", "name", ResultSet::getString)
+            .column("version", "version", ResultSet::getInt)
+            .build();
+
     private final JdbcTemplate jdbcTemplate;
+    private final TeamCache teamCache;
+    private final DataVersions dataVersions;
+    private final ChangeLogRepository changeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeStatistics statistics;
 
     @Autowired
-    public TeamRepository(JdbcTemplate jdbcTemplate) {
+    public TeamRepository(JdbcTemplate jdbcTemplate, TeamCache teamCache, DataVersions dataVersions,
+            ChangeLogRepository changeLog, ApplicationEventPublisher eventPublisher, EmployeeStatistics statistics) {
         this.jdbcTemplate = jdbcTemplate;
+        this.teamCache = teamCache;
+        this.dataVersions = dataVersions;
+        this.changeLog = changeLog;
+        this.eventPublisher = eventPublisher;
+        this.statistics = statistics;
     }
 
 
@@ -38,48 +70,127 @@ public class TeamRepository {
 
 
     /**
-     * Retrieves a Team entity from the database by its ID.
+     * Retrieves the selected columns of all teams.
+     *
+     * @param projection the columns to read, see {@link #COLUMNS}
+     * @return a list of rows keyed by property name
+     */
+    public List<Map<String, Object>> findAll(ColumnProjection projection) {
+        String sql = "SELECT " + projection.selectList() + " FROM teams";
+        return jdbcTemplate.query(sql, projection.rowMapper());
+    }
+
+
+    /**
+     * Retrieves a Team entity by its ID. Teams change rarely, so the result is
+     * served from the TeamCache and read from the database only on a cache miss.
      *
      * @param id the ID of the team to retrieve
      * @return an Optional containing the Team object if found, or an empty Optional if not
      */
     public Optional<Team> findById(int id) {
+        return teamCache.get(id, this::loadById);
+    }
+
+    /**
+     * Retrieves a Team entity by its ID from the database, bypassing the TeamCache,
+     * so an update based on it starts from the current version.
+     *
+     * @param id the ID of the team to retrieve
+     * @return an Optional containing the Team object if found, or an empty Optional if not
+     */
+    public Optional<Team> findCurrentById(int id) {
+        return loadById(id);
+    }
+
+    private Optional<Team> loadById(int id) {
         String sql = "SELECT * FROM teams WHERE ID = ?";
         List<Team> results = jdbcTemplate.query(sql, new TeamRowMapper(), id);
         return results.stream().findFirst();
     }
 
     /**
-     * Saves a new Team entity in the database.
+     * Saves a new Team entity in the database and records it in the change log.
+     * The ID generated by the database is read from the insert statement itself
+     * and set on the given team.
      *
      * @param team the Team object to be saved
-     * @return the number of rows affected
+     * @return the saved team with its generated ID
      */
-    public int save(Team team) {
+    @Transactional
+    public Team save(Team team) {
         String sql = "INSERT INTO teams (name) VALUES (?)";
-        return jdbcTemplate.update(sql, team.getName());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, team.getName());
+            return statement;
+        }, keyHolder);
+        team.setId(keyHolder.getKeyAs(Number.class).intValue());
+        changeLog.record(ChangeLogEntry.TEAM, team.getId(), ChangeLogEntry.UPSERT);
+        publish(EntityChangedEvent.CREATED, team.getId(), team);
+        dataVersions.teamsChanged();
+        return team;
     }
 
     /**
-     * Updates an existing Team in the database.
+     * Updates an existing Team in the database and records it in the change log.
+     * The row is only updated if its version still equals the version of the given
+     * team, which is then incremented.
      *
-     * @param team the Team object containing updated information
+     * @param team the Team object containing updated information and the version it was read with
      * @return the number of rows affected
+     * @throws OptimisticLockingFailureException if the team was changed or deleted since it was read
      */
+    @Transactional
     public int update(Team team) {
-        String sql = "UPDATE teams SET name = ? WHERE ID = ?";
-        return jdbcTemplate.update(sql, team.getName(), team.getId());
+        String sql = "UPDATE teams SET name = ?, version = version + 1 WHERE ID = ? AND version = ?";
+        int rowsAffected = jdbcTemplate.update(sql, team.getName(), team.getId(), team.getVersion());
+        if (rowsAffected == 0) {
+            throw new OptimisticLockingFailureException("Team " + team.getId()
+                    + " was changed or deleted since version " + team.getVersion());
+        }
+        team.setVersion(team.getVersion() + 1);
+        changeLog.record(ChangeLogEntry.TEAM, team.getId(), ChangeLogEntry.UPSERT);
+        publish(EntityChangedEvent.UPDATED, team.getId(), team);
+        teamCache.invalidate(team.getId());
+        dataVersions.teamsChanged();
+        return rowsAffected;
     }
 
     /**
-     * Deletes a Team record from the database by its ID.
+     * Deletes a Team record from the database by its ID. Tombstones of the team
+     * and of its members, which are removed by the cascade, are recorded in the
+     * change log.
      *
      * @param id the ID of the Team to be deleted
      * @return the number of rows affected
      */
+    @Transactional
     public int deleteById(int id) {
+        // The members are removed by the cascade, so they are read and locked first
+        List<Integer> memberIds = jdbcTemplate.queryForList(
+                "SELECT ID FROM employees WHERE team_id = ? FOR UPDATE", Integer.class, id);
+        EmployeeStatistics.Delta members = statistics.lockAndCount("team_id = ?", -1, id);
         String sql = "DELETE FROM teams WHERE ID = ?";
-        return jdbcTemplate.update(sql, id);
+        int rowsAffected = jdbcTemplate.update(sql, id);
+        if (rowsAffected > 0) {
+            statistics.apply(members);
+            changeLog.recordAll(ChangeLogEntry.EMPLOYEE, memberIds, ChangeLogEntry.DELETE);
+            changeLog.record(ChangeLogEntry.TEAM, id, ChangeLogEntry.DELETE);
+            memberIds.forEach(memberId -> eventPublisher.publishEvent(
+                    new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, memberId, null)));
+            publish(EntityChangedEvent.DELETED, id, null);
+        }
+        teamCache.invalidate(id);
+        // The members of the team are deleted by the cascade
+        dataVersions.teamsChanged();
+        dataVersions.employeesChanged();
+        return rowsAffected;
+    }
+
+    private void publish(String type, int id, Team team) {
+        eventPublisher.publishEvent(new EntityChangedEvent(ChangeLogEntry.TEAM, type, id, team));
     }
 }
 
@@ -87,14 +198,16 @@ public class TeamRepository {
  * A RowMapper implementation for mapping rows of a ResultSet to Team objects.
  * This class is used to map each row of the result set obtained from a query
  * into a Team object. The mapping is performed by extracting the values of the
- * columns "ID" and "name" from the result set and passing them to the Team constructor.
+ * columns "ID", "name" and "version" from the result set.
  */
 class TeamRowMapper implements RowMapper<Team> {
     @Override
     public Team mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Team(
+        Team team = new Team(
                 rs.getInt("ID"),
                 rs.getString("name")
         );
+        team.setVersion(rs.getInt("version"));
+        return team;
     }
 }
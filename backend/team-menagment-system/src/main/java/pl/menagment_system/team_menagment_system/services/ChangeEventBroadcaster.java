@@ -0,0 +1,204 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the committed employee and team changes to the subscribers of the
+ * Server-Sent Events stream.
+ *
+ * Every event is serialized once and added to the bounded buffer of each
+ * subscriber. A small shared pool writes the buffers to the connections, so an
+ * idle subscriber holds no thread, only its open connection. A subscriber whose
+ * buffer overflows is too slow to keep up and is disconnected; the browser
+ * reconnects and can catch up with the delta sync endpoints. A comment is sent
+ * periodically to detect closed connections and keep proxies from timing out.
+ * The number of open streams is published as the {@code events.subscribers} metric.
+ */
+@Service
+@Profile("!reactive")
+public class ChangeEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeout;
+
+    public ChangeEventBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${events.buffer-size:256}") int bufferSize,
+            @Value("${events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${events.timeout:30m}") Duration timeout,
+            @Value("${events.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout.toMillis();
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("sse-sender-"));
+        Gauge.builder("events.subscribers", subscribers, Set::size)
+                .description("Number of open event streams").register(meterRegistry);
+    }
+
+    /**
+     * Opens a new event stream.
+     *
+     * @return an Optional containing the emitter of the stream, or an empty Optional
+     *         if the maximum number of subscribers is reached
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = createEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Pushes a change to all subscribers once its transaction is committed.
+     * Changes made outside a transaction are pushed immediately.
+     *
+     * @param event the change of an employee or a team
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            String data = objectMapper.writeValueAsString(Map.of(
+                    "type", event.getType(),
+                    "id", event.getId(),
+                    "data", event.getData() != null ? event.getData() : Map.of()));
+            broadcast(SseEmitter.event()
+                    .id(Long.toString(sequence.incrementAndGet()))
+                    .name(event.getEntity().toLowerCase(Locale.ROOT))
+                    .data(data, MediaType.APPLICATION_JSON)
+                    .build());
+        } catch (JsonProcessingException ex) {
+            logger.warn("Could not serialize change event of {} {}: {}", event.getEntity(), event.getId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Sends a keep-alive comment to all subscribers, which also removes the closed connections.
+     */
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:30000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("ping").build());
+        }
+    }
+
+    /**
+     * Creates the emitter of a new event stream.
+     *
+     * @param timeout the timeout of the stream in milliseconds
+     * @return the emitter
+     */
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void broadcast(Set<DataWithMediaType> payload) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(payload);
+        }
+    }
+
+    /**
+     * A single event stream with its bounded buffer. At most one sender task drains
+     * the buffer at a time, so the events of a stream are written in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<DataWithMediaType> payload) {
+            if (!buffer.offer(payload)) {
+                logger.debug("Disconnecting slow event stream subscriber");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> payload;
+                while ((payload = buffer.poll()) != null) {
+                    emitter.send(payload);
+                }
+            } catch (Exception ex) {
+                // The client disconnected or the stream was already completed
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import pl.menagment_system.team_menagment_system.dto.ChangeSet;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.repository.ChangeLogRepository;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Service reading the change log for the delta sync endpoints.
+ *
+ * Versions are assigned when a change is written but become visible when its
+ * transaction commits, so a reader may see version N+1 before N. A read therefore
+ * stops at the first missing version. A gap is skipped only once it has been
+ * missing for {@code changes.gap-timeout} since it was first seen and the log
+ * holds no committed or locked row in it, which means its transaction was
+ * rolled back. A transaction that stays open longer than the timeout still holds
+ * the lock of its row, so its change is never skipped. Entries older than
+ * {@code changes.retention} are pruned every night.
+ */
+@Service
+@Profile("!reactive")
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    // The time each gap was first seen, keyed by its first missing version
+    private final Map<Long, Long> gapsFirstSeen = new ConcurrentHashMap<>();
+
+    public ChangeFeedService(ChangeLogRepository changeLogRepository, EmployeeRepository employeeRepository,
+            TeamRepository teamRepository,
+            @Value("${changes.batch-size:1000}") int batchSize,
+            @Value("${changes.gap-timeout:30s}") Duration gapTimeout,
+            @Value("${changes.retention:7d}") Duration retention) {
+        this.changeLogRepository = changeLogRepository;
+        this.employeeRepository = employeeRepository;
+        this.teamRepository = teamRepository;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * Checks whether changes after the given version were already pruned from the log,
+     * in which case the caller has to reload the full data.
+     *
+     * @param since the last version known to the caller
+     * @return true if some changes after the version are no longer available
+     */
+    public boolean isExpired(long since) {
+        long oldest = changeLogRepository.findOldestVersion();
+        return oldest > 0 && since < oldest - 1;
+    }
+
+    /**
+     * Retrieves the most recent version of the log, the starting point for a
+     * client that has just loaded the full data.
+     *
+     * @return the latest version, or 0 if the log is empty
+     */
+    public long latestVersion() {
+        return changeLogRepository.findLatestVersion();
+    }
+
+    /**
+     * Retrieves the employees changed after the given version.
+     *
+     * @param since the last version known to the caller
+     * @return the changed employees and the version to continue from
+     */
+    public ChangeSet<Employee> employeeChanges(long since) {
+        return readChanges(ChangeLogEntry.EMPLOYEE, since, employeeRepository::findByIds, Employee::getId);
+    }
+
+    /**
+     * Retrieves the teams changed after the given version.
+     *
+     * @param since the last version known to the caller
+     * @return the changed teams and the version to continue from
+     */
+    public ChangeSet<Team> teamChanges(long since) {
+        return readChanges(ChangeLogEntry.TEAM, since,
+                ids -> ids.stream().map(teamRepository::findById).flatMap(Optional::stream).toList(),
+                Team::getId);
+    }
+
+    /**
+     * Deletes the changes older than the retention period.
+     */
+    @Scheduled(cron = "${changes.prune-cron:0 0 3 * * *}")
+    public void prune() {
+        try {
+            Timestamp before = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+            int deleted = changeLogRepository.deleteOlderThan(before);
+            logger.info("Pruned {} change log entries older than {}", deleted, before);
+            long oldest = changeLogRepository.findOldestVersion();
+            gapsFirstSeen.keySet().removeIf(version -> version < oldest);
+        } catch (Exception ex) {
+            logger.warn("Could not prune the change log: {}", ex.getMessage());
+        }
+    }
+
+    private <T> ChangeSet<T> readChanges(String entity, long since,
+            Function<List<Integer>, List<T>> loader, ToIntFunction<T> idOf) {
+        List<ChangeLogEntry> entries = changeLogRepository.findSince(since, batchSize);
+        boolean hasMore = entries.size() == batchSize;
+
+        // Keep the last operation of every row, in version order
+        Map<Integer, String> operations = new LinkedHashMap<>();
+        long version = since;
+        for (ChangeLogEntry entry : entries) {
+            boolean gap = entry.getVersion() != version + 1;
+            if (gap && !isSettled(version, entry.getVersion())) {
+                // An earlier change may still be committed, the next poll continues from here
+                hasMore = false;
+                break;
+            }
+            version = entry.getVersion();
+            if (entity.equals(entry.getEntity())) {
+                operations.remove(entry.getEntityId());
+                operations.put(entry.getEntityId(), entry.getOperation());
+            }
+        }
+
+        List<Integer> upsertedIds = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        operations.forEach((id, operation) -> (ChangeLogEntry.DELETE.equals(operation) ? deleted : upsertedIds).add(id));
+
+        // Rows deleted in the meantime are skipped; their tombstones follow in a later read
+        Map<Integer, T> current = new LinkedHashMap<>();
+        if (!upsertedIds.isEmpty()) {
+            loader.apply(upsertedIds).forEach(row -> current.put(idOf.applyAsInt(row), row));
+        }
+        List<T> upserted = upsertedIds.stream().filter(current::containsKey).map(current::get).toList();
+
+        return new ChangeSet<>(upserted, deleted, version, hasMore);
+    }
+
+    private boolean isSettled(long lastVersion, long nextVersion) {
+        long now = System.nanoTime();
+        long firstSeen = gapsFirstSeen.computeIfAbsent(lastVersion + 1, version -> now);
+        if (now - firstSeen < gapTimeout.toNanos()) {
+            return false;
+        }
+        // Committed in the meantime or still being written by an open transaction
+        return !changeLogRepository.existsBetween(lastVersion, nextVersion);
+    }
+}
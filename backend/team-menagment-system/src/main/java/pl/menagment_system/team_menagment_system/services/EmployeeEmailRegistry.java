@@ -0,0 +1,149 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of the normalized email addresses of all employees.
+ *
+ * The registry lets the uniqueness check skip the database for the common case
+ * of a free email address. A hit is only a hint and must be confirmed against the
+ * database, which stays the source of truth through its unique index. The registry
+ * is loaded once the application is ready and then follows the committed
+ * EntityChangedEvent of every employee write, including the tombstones of the
+ * members removed with their team, so a deleted employee's email is free again
+ * without rescanning the table. It can be disabled with the
+ * {@code employees.email-registry.enabled} property.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeEmailRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeEmailRegistry.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+
+    // Both maps are modified under the lock of the registry; lookups read them without it
+    private final Map<String, Integer> idsByEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, String> emailsById = new ConcurrentHashMap<>();
+    // Changes committed while the registry is loading, applied on top of the loaded emails
+    private List<EntityChangedEvent> changedDuringLoad;
+    private volatile boolean loaded = false;
+
+    public EmployeeEmailRegistry(EmployeeRepository employeeRepository,
+            @Value("${employees.email-registry.enabled:true}") boolean enabled) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads the registry when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    /**
+     * Updates the registry once a change of an employee is committed.
+     *
+     * @param event the change of an employee or a team
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (enabled && ChangeLogEntry.EMPLOYEE.equals(event.getEntity())) {
+            synchronized (this) {
+                if (changedDuringLoad != null) {
+                    changedDuringLoad.add(event);
+                }
+                apply(event);
+            }
+        }
+    }
+
+    /**
+     * Builds the registry from the database. If the database cannot be read,
+     * the registry stays unloaded and every lookup falls back to the database.
+     */
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changedDuringLoad = new ArrayList<>();
+        }
+        try {
+            Map<Integer, String> emails = employeeRepository.findAllNormalizedEmails();
+            synchronized (this) {
+                idsByEmail.clear();
+                emailsById.clear();
+                emails.forEach(this::put);
+                // The query may have missed the changes committed while it ran
+                changedDuringLoad.forEach(this::apply);
+                loaded = true;
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not load employee email registry, falling back to database lookups: {}", ex.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given email may already be in use.
+     *
+     * @param email the email address to check
+     * @return false if the email is certainly free, true if it may be taken
+     *         or the registry is not loaded
+     */
+    public boolean mightContain(String email) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        return idsByEmail.containsKey(normalize(email));
+    }
+
+    private void apply(EntityChangedEvent event) {
+        if (EntityChangedEvent.DELETED.equals(event.getType())) {
+            remove(event.getId());
+        } else if (event.getData() instanceof Employee employee && employee.getEmail() != null) {
+            put(event.getId(), normalize(employee.getEmail()));
+        }
+    }
+
+    private void put(int id, String email) {
+        remove(id);
+        emailsById.put(id, email);
+        idsByEmail.put(email, id);
+    }
+
+    private void remove(int id) {
+        String previous = emailsById.remove(id);
+        if (previous != null) {
+            idsByEmail.remove(previous, id);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
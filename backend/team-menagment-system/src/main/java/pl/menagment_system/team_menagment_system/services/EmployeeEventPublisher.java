@@ -1,6 +1,8 @@
 package pl.menagment_system.team_menagment_system.services;
 
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -11,7 +13,11 @@ import java.util.Map;
  * to the RabbitMQ exchange.
  */
 @Service
+@Profile("!reactive")
 public class EmployeeEventPublisher {
+    private static final String MAIL_EXCHANGE = "employee-mail-exchange";
+    private static final String SMS_EXCHANGE = "employee-sms-exchange";
+
     private final RabbitTemplate rabbitTemplate;
 
     /**
@@ -32,10 +38,50 @@ public class EmployeeEventPublisher {
      *         of the operation.
      */
     public String sendEmployeeUpdateMail(Map<String, String> mailData) {
-        return (String) rabbitTemplate.convertSendAndReceive("employee-mail-exchange", "employee.mail.update", mailData);
+        return (String) rabbitTemplate.convertSendAndReceive(MAIL_EXCHANGE, "employee.mail.update", mailData);
     }
 
     public String sendEmployeeUpdateSms(Map<String, String> mailData) {
-        return (String) rabbitTemplate.convertSendAndReceive("employee-sms-exchange", "employee.sms.update", mailData);
+        return (String) rabbitTemplate.convertSendAndReceive(SMS_EXCHANGE, "employee.sms.update", mailData);
+    }
+
+    /**
+     * Publishes an employee update message without waiting for the result.
+     * Used by the OutboxRelay, which confirms the whole batch on the given channel.
+     * The email service replies to the "email-status-queue" with the notification
+     * ID as the correlation ID.
+     *
+     * @param operations     The operations of the channel to publish on.
+     * @param notificationId The ID under which the delivery status is tracked.
+     * @param mailData       A map containing the data related to the employee update.
+     */
+    public void publishEmployeeUpdateMail(RabbitOperations operations, String notificationId,
+            Map<String, String> mailData) {
+        publish(operations, MAIL_EXCHANGE, "employee.mail.update", "email.status", notificationId, mailData);
+    }
+
+    /**
+     * Publishes an employee update SMS message without waiting for the result.
+     * Used by the OutboxRelay, which confirms the whole batch on the given channel.
+     * The SMS service replies to the "sms-status-queue" with the notification
+     * ID as the correlation ID.
+     *
+     * @param operations     The operations of the channel to publish on.
+     * @param notificationId The ID under which the delivery status is tracked.
+     * @param smsData        A map containing the data related to the employee update.
+     */
+    public void publishEmployeeUpdateSms(RabbitOperations operations, String notificationId,
+            Map<String, String> smsData) {
+        publish(operations, SMS_EXCHANGE, "employee.sms.update", "sms.status", notificationId, smsData);
+    }
+
+    private void publish(RabbitOperations operations, String exchange, String routingKey, String statusRoutingKey,
+            String notificationId, Map<String, String> data) {
+        operations.convertAndSend(exchange, routingKey, data, message -> {
+            // The listener's return value is routed to the status queue instead of a reply queue
+            message.getMessageProperties().setReplyTo(exchange + "/" + statusRoutingKey);
+            message.getMessageProperties().setCorrelationId(notificationId);
+            return message;
+        });
     }
 }
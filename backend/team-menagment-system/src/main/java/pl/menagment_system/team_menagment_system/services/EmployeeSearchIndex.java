@@ -0,0 +1,555 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index of the first name, last name, email and role of all
+ * employees, serving the employee search.
+ *
+ * Every field is lower-cased and stripped of diacritics, so "lukasz" finds
+ * "Łukasz". The index maps each trigram of a field, and the first one and two
+ * characters of each word, to the sorted IDs of the employees containing it. A
+ * query term of three or more characters matches anywhere in a field, a shorter
+ * term only at the start of a word. A search intersects the posting lists of the
+ * query grams and checks the remaining employees against all terms, so its cost
+ * depends on the number of candidates rather than on the number of employees.
+ *
+ * Results are ranked by how well each term matches (whole word, word prefix or
+ * substring) weighted by the field (last name, first name, email, role), then by
+ * name. The index is loaded once the application is ready, and the load is
+ * retried every {@code employees.search.retry-interval} until it succeeds. It is
+ * kept up to date from the committed changes published by the EmployeeRepository,
+ * which a single background thread applies in batches, so searches may lag behind
+ * a write by a few milliseconds. It can be disabled with the
+ * {@code employees.search.enabled} property. The number of indexed employees is
+ * published as the {@code employees.search.documents} metric.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+    // Marks the grams of word prefixes, so they do not collide with the trigrams
+    private static final char PREFIX_MARK = '\0';
+    private static final char FIELD_SEPARATOR = '\n';
+    // Weights of the fields of a Document: first name, last name, email, role
+    private static final int[] FIELD_WEIGHTS = {3, 4, 2, 1};
+    private static final int WHOLE_WORD = 3;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 1;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.document().sortKey)
+            .thenComparingInt(hit -> hit.document().employee.getId());
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final long retryIntervalMillis;
+    private final ScheduledExecutorService indexer;
+    private final Queue<EntityChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Only the indexer thread modifies the documents and the postings, under the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Keyed by employee ID, which may be sparse after deletes or imported rows
+    private Map<Integer, Document> documents = new HashMap<>();
+    private Map<String, PostingList> postings = new HashMap<>();
+
+    private volatile int size = 0;
+    private volatile boolean loaded = false;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, MeterRegistry meterRegistry,
+            @Value("${employees.search.enabled:true}") boolean enabled,
+            @Value("${employees.search.retry-interval:30s}") Duration retryInterval) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+        this.retryIntervalMillis = retryInterval.toMillis();
+        this.indexer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("search-indexer-"));
+        Gauge.builder("employees.search.documents", this, index -> index.size)
+                .description("Number of employees in the search index").register(meterRegistry);
+    }
+
+    /**
+     * Loads the index in the background when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            indexer.execute(this::load);
+        }
+    }
+
+    /**
+     * Queues a committed change of an employee for indexing.
+     *
+     * @param event the change of an employee or a team
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (enabled && ChangeLogEntry.EMPLOYEE.equals(event.getEntity())) {
+            pending.add(event);
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Checks whether the index is loaded and can serve searches.
+     *
+     * @return true if searches can be served, false if the index is disabled,
+     *         still loading or could not be loaded
+     */
+    public boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * Finds the employees matching all whitespace-separated terms of the query.
+     *
+     * @param query the search query
+     * @param limit the maximum number of employees to return
+     * @return the best matching employees, best match first
+     */
+    public List<Employee> search(String query, int limit) {
+        List<String> terms = Arrays.stream(normalize(query).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : queryGrams(terms)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    // No employee contains this part of the query
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            // Candidates are the employees containing all grams, starting from the shortest list
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int l = 1; l < lists.size() && count > 0; l++) {
+                count = lists.get(l).retain(candidates, count);
+            }
+
+            for (int i = 0; i < count; i++) {
+                Document document = documents.get(candidates[i]);
+                int score = score(document.text, terms);
+                if (score == 0 || (best.size() == limit && score < best.peek().score())) {
+                    continue;
+                }
+                Hit hit = new Hit(document, score);
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (RANKING.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return best.stream()
+                .sorted(RANKING)
+                .map(hit -> copy(hit.document().employee))
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    /**
+     * Builds the index from the database. If the database cannot be read, the
+     * index stays unloaded and searches are refused until a retry succeeds. The
+     * changes committed in the meantime are read by the retry itself.
+     */
+    private void load() {
+        try {
+            Map<Integer, Document> freshDocuments = new HashMap<>();
+            Map<String, PostingList> freshPostings = new HashMap<>();
+            // The employees are streamed in ID order, so every posting list is appended in order
+            employeeRepository.streamAll(employee -> {
+                Document document = new Document(employee);
+                freshDocuments.put(employee.getId(), document);
+                document.forEachGram(gram ->
+                        freshPostings.computeIfAbsent(gram, key -> new PostingList()).add(employee.getId()));
+            });
+
+            lock.writeLock().lock();
+            try {
+                documents = freshDocuments;
+                postings = freshPostings;
+                size = freshDocuments.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded = true;
+            logger.info("Loaded employee search index with {} employees and {} terms",
+                    freshDocuments.size(), freshPostings.size());
+        } catch (Exception ex) {
+            loaded = false;
+            logger.warn("Could not load employee search index, search is unavailable, retrying in {} ms: {}",
+                    retryIntervalMillis, ex.getMessage());
+            indexer.schedule(this::load, retryIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            indexer.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            // Only the latest state of each employee is indexed, null for deleted ones
+            Map<Integer, Employee> changes = new LinkedHashMap<>();
+            EntityChangedEvent event;
+            while ((event = pending.poll()) != null) {
+                changes.put(event.getId(), EntityChangedEvent.DELETED.equals(event.getType())
+                        ? null
+                        : (Employee) event.getData());
+            }
+            if (loaded && !changes.isEmpty()) {
+                apply(changes);
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not update employee search index: {}", ex.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        if (!pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Applies a batch of changes, touching each affected posting list once.
+     */
+    private void apply(Map<Integer, Employee> changes) {
+        Map<Integer, Document> changed = new HashMap<>();
+        Map<String, List<Integer>> removed = new HashMap<>();
+        Map<String, List<Integer>> added = new HashMap<>();
+        changes.forEach((id, employee) -> {
+            Document previous = documents.get(id);
+            Document current = employee != null ? new Document(employee) : null;
+            Set<String> previousGrams = previous != null ? previous.grams() : Set.of();
+            Set<String> currentGrams = current != null ? current.grams() : Set.of();
+            for (String gram : previousGrams) {
+                if (!currentGrams.contains(gram)) {
+                    removed.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+                }
+            }
+            for (String gram : currentGrams) {
+                if (!previousGrams.contains(gram)) {
+                    added.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+                }
+            }
+            changed.put(id, current);
+        });
+
+        lock.writeLock().lock();
+        try {
+            removed.forEach((gram, ids) -> {
+                PostingList list = postings.get(gram);
+                if (list != null && list.removeAll(sorted(ids)) == 0) {
+                    postings.remove(gram);
+                }
+            });
+            added.forEach((gram, ids) -> postings.computeIfAbsent(gram, key -> new PostingList()).addAll(sorted(ids)));
+            changed.forEach((id, document) -> {
+                if (document != null) {
+                    documents.put(id, document);
+                } else {
+                    documents.remove(id);
+                }
+            });
+            size = documents.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> queryGrams(List<String> terms) {
+        Set<String> grams = new HashSet<>();
+        for (String term : terms) {
+            if (term.length() < GRAM_LENGTH) {
+                grams.add(PREFIX_MARK + term);
+            }
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                grams.add(term.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Scores the text of a document against the query terms.
+     *
+     * @return the sum of the best weighted match of each term, or 0 if any term does not match
+     */
+    private static int score(String text, List<String> terms) {
+        int score = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int at = text.indexOf(term); at >= 0; at = text.indexOf(term, at + 1)) {
+                best = Math.max(best, matchQuality(text, at, term.length()) * FIELD_WEIGHTS[field(text, at)]);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    /**
+     * Rates an occurrence of a term in the text.
+     *
+     * @return {@link #WHOLE_WORD}, {@link #WORD_PREFIX}, {@link #SUBSTRING} or 0
+     *         for a short term inside a word
+     */
+    private static int matchQuality(String text, int at, int length) {
+        if (!isWordStart(text, at)) {
+            return length >= GRAM_LENGTH ? SUBSTRING : 0;
+        }
+        int end = at + length;
+        return end == text.length() || !Character.isLetterOrDigit(text.charAt(end)) ? WHOLE_WORD : WORD_PREFIX;
+    }
+
+    /**
+     * Returns the index of the field containing the given position of the text.
+     */
+    private static int field(String text, int at) {
+        int field = 0;
+        for (int separator = text.indexOf(FIELD_SEPARATOR); separator >= 0 && separator < at;
+                separator = text.indexOf(FIELD_SEPARATOR, separator + 1)) {
+            field++;
+        }
+        return field;
+    }
+
+    private static boolean isWordStart(String text, int at) {
+        return at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1));
+    }
+
+    /**
+     * Lower-cases the value and removes its diacritics.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                // The Polish ł has no decomposition
+                normalized.append(c == 'ł' ? 'l' : c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static int[] sorted(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static Employee copy(Employee employee) {
+        Employee copy = new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getPhone(), employee.getHireDate(), employee.getRole(), employee.getTeamId());
+        copy.setVersion(employee.getVersion());
+        return copy;
+    }
+
+    /**
+     * An indexed employee. The normalized searchable fields are kept in a single
+     * string separated by line breaks.
+     */
+    private static final class Document {
+
+        private final Employee employee;
+        private final String text;
+        // Orders the results with the same score by last name, then first name
+        private final String sortKey;
+
+        private Document(Employee employee) {
+            this.employee = copy(employee);
+            String firstName = normalize(employee.getFirstName());
+            String lastName = normalize(employee.getLastName());
+            this.text = (firstName + FIELD_SEPARATOR + lastName + FIELD_SEPARATOR + normalize(employee.getEmail())
+                    + FIELD_SEPARATOR + normalize(employee.getRole()));
+            this.sortKey = lastName + FIELD_SEPARATOR + firstName;
+        }
+
+        /**
+         * Passes every trigram of the fields and the one and two character
+         * prefixes of their words to the action. A gram occurring several times
+         * is passed several times.
+         */
+        private void forEachGram(Consumer<String> action) {
+            for (int i = 0; i < text.length(); i++) {
+                String gram = i + GRAM_LENGTH <= text.length() ? text.substring(i, i + GRAM_LENGTH) : "";
+                // Trigrams do not span two fields
+                if (!gram.isEmpty() && gram.indexOf(FIELD_SEPARATOR) < 0) {
+                    action.accept(gram);
+                }
+                if (Character.isLetterOrDigit(text.charAt(i)) && isWordStart(text, i)) {
+                    action.accept(PREFIX_MARK + text.substring(i, i + 1));
+                    if (i + 1 < text.length() && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                        action.accept(PREFIX_MARK + text.substring(i, i + 2));
+                    }
+                }
+            }
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            forEachGram(grams::add);
+            return grams;
+        }
+    }
+
+    /**
+     * Sorted IDs of the employees containing a gram.
+     */
+    private static final class PostingList {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size > 0 && ids[size - 1] > id) {
+                addAll(new int[]{id});
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Merges the given sorted IDs into the list, skipping the ones already present.
+         */
+        private void addAll(int[] sortedIds) {
+            int[] merged = new int[Math.max(size + sortedIds.length, 4)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size || j < sortedIds.length) {
+                int next;
+                if (j == sortedIds.length || (i < size && ids[i] <= sortedIds[j])) {
+                    next = ids[i++];
+                } else {
+                    next = sortedIds[j++];
+                }
+                if (n == 0 || merged[n - 1] != next) {
+                    merged[n++] = next;
+                }
+            }
+            ids = merged;
+            size = n;
+        }
+
+        /**
+         * Keeps the sorted IDs that are also contained in this list. Each ID is
+         * looked up with a galloping search from the position of the previous one,
+         * so filtering a few IDs against a long list and two lists of similar
+         * length are both cheap.
+         *
+         * @param sortedIds the IDs to filter, modified in place
+         * @param count     the number of IDs to filter
+         * @return the number of IDs kept at the start of the array
+         */
+        private int retain(int[] sortedIds, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int step = 1;
+                while (from + step < size && ids[from + step] < sortedIds[i]) {
+                    step <<= 1;
+                }
+                int at = Arrays.binarySearch(ids, from + step / 2, Math.min(from + step + 1, size), sortedIds[i]);
+                if (at >= 0) {
+                    sortedIds[kept++] = sortedIds[i];
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            return kept;
+        }
+
+        /**
+         * Removes the given sorted IDs from the list.
+         *
+         * @return the number of IDs left in the list
+         */
+        private int removeAll(int[] sortedIds) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(sortedIds, ids[i]) < 0) {
+                    ids[n++] = ids[i];
+                }
+            }
+            size = n;
+            return size;
+        }
+    }
+
+    private record Hit(Document document, int score) {
+    }
+}
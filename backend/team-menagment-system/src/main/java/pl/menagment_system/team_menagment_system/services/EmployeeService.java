@@ -1,11 +1,27 @@
 package pl.menagment_system.team_menagment_system.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.menagment_system.team_menagment_system.dto.EmployeeBatchResult;
+import pl.menagment_system.team_menagment_system.dto.EmployeeDeletionResult;
+import pl.menagment_system.team_menagment_system.dto.TeamReassignmentResult;
 import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.NotificationStatus;
+import pl.menagment_system.team_menagment_system.model.Team;
 import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Service class responsible for managing Employee-related operations.
@@ -13,19 +29,184 @@ import java.util.List;
  * and interacting with the EmployeeRepository for persistence operations.
  */
 @Service
+@Profile("!reactive")
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final EmployeeEmailRegistry emailRegistry;
+    private final NotificationService notificationService;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, TeamRepository teamRepository,
+            EmployeeEmailRegistry emailRegistry, NotificationService notificationService) {
         this.employeeRepository = employeeRepository;
+        this.teamRepository = teamRepository;
+        this.emailRegistry = emailRegistry;
+        this.notificationService = notificationService;
     }
 
+    /**
+     * Ensures that the given email is not used by any other employee.
+     * The in-memory registry answers for free emails; possible duplicates are
+     * confirmed with an indexed, case-insensitive database lookup.
+     *
+     * @param email the email address to validate
+     * @throws IllegalArgumentException if the email is already in use
+     */
     public void validateEmailUniqueness(String email) {
-        List<Employee> existingEmployees = employeeRepository.findAll();
-        if (existingEmployees.stream().anyMatch(emp -> emp.getEmail().equalsIgnoreCase(email))) {
+        if (emailRegistry.mightContain(email) && employeeRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email is already in use.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores a new employee and sends the notifications about joining the team.
+     * The employee row and the outbox entries of its notifications are written
+     * in one transaction. The generated ID is set on the given employee.
+     *
+     * @param employee the employee to create
+     * @return the status of the sent notification
+     * @throws IllegalArgumentException if the email is already in use
+     */
+    @Transactional
+    public NotificationStatus create(Employee employee) {
+        validateEmailUniqueness(employee.getEmail());
+        employeeRepository.save(employee);
+        return notificationService.send(getNotificationData(employee));
+    }
+
+    /**
+     * Stores several new employees at once and sends their notifications.
+     * Email uniqueness is checked with one set-based query, duplicates inside the
+     * batch are rejected as well, the accepted rows are inserted with a single JDBC
+     * batch and their notifications are added to the outbox in one batch. Rows that
+     * are rejected do not prevent the others from being stored.
+     *
+     * @param employees the employees to create, keyed by their position in the request
+     * @return the result of each row, ordered by position
+     */
+    @Transactional
+    public List<EmployeeBatchResult> createAll(Map<Integer, Employee> employees) {
+        Set<String> usedEmails = employeeRepository.findExistingEmails(
+                employees.values().stream().map(Employee::getEmail).toList());
+        Map<Integer, Boolean> existingTeams = new HashMap<>();
+
+        Map<Integer, EmployeeBatchResult> results = new TreeMap<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Employee> accepted = new ArrayList<>();
+        for (Map.Entry<Integer, Employee> row : employees.entrySet()) {
+            Employee employee = row.getValue();
+            int teamId = employee.getTeamId();
+            if (!existingTeams.computeIfAbsent(teamId, id -> teamRepository.findById(id).isPresent())) {
+                results.put(row.getKey(), EmployeeBatchResult.failed(row.getKey(),
+                        "Nie znaleziono zespołu o identyfikatorze " + teamId + ".", null));
+            } else if (!usedEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                results.put(row.getKey(), EmployeeBatchResult.failed(row.getKey(), "Email is already in use.", null));
+            } else {
+                acceptedIndexes.add(row.getKey());
+                accepted.add(employee);
+            }
+        }
+
+        employeeRepository.saveAll(accepted);
+        List<NotificationStatus> notifications = notificationService.sendAll(
+                accepted.stream().map(this::getNotificationData).toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.put(index, EmployeeBatchResult.created(index, accepted.get(i), notifications.get(i).getId()));
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Stores the changes of an existing employee and, if requested, sends the
+     * notifications about the new team. Only their outbox entries are written in
+     * the same transaction.
+     *
+     * @param employee the employee with updated information
+     * @param notify   whether the employee was moved to another team and should be notified
+     * @return the status of the sent notification, or null if no notification was sent
+     */
+    @Transactional
+    public NotificationStatus update(Employee employee, boolean notify) {
+        employeeRepository.update(employee);
+        return notify ? notificationService.send(getNotificationData(employee)) : null;
+    }
+
+    /**
+     * Moves a group of employees to the given team with one set-based update and
+     * notifies the moved employees with a single batch of notifications. Employees
+     * already in the team are left untouched and not notified.
+     *
+     * @param team        the team the employees are moved to
+     * @param employeeIds the IDs of the employees to move
+     * @return the moved employees, their notification IDs, and the IDs that were skipped
+     */
+    @Transactional
+    public TeamReassignmentResult moveToTeam(Team team, List<Integer> employeeIds) {
+        List<Employee> employees = employeeRepository.findByIdsForUpdate(employeeIds);
+
+        Set<Integer> foundIds = new HashSet<>();
+        List<Employee> moved = new ArrayList<>();
+        List<Integer> alreadyMembers = new ArrayList<>();
+        for (Employee employee : employees) {
+            foundIds.add(employee.getId());
+            if (employee.getTeamId() == team.getId()) {
+                alreadyMembers.add(employee.getId());
+            } else {
+                moved.add(employee);
+            }
+        }
+        List<Integer> notFound = employeeIds.stream().distinct().filter(id -> !foundIds.contains(id)).toList();
+
+        Map<Integer, String> notificationIds = new LinkedHashMap<>();
+        if (!moved.isEmpty()) {
+            employeeRepository.updateTeamId(team.getId(), moved);
+            List<NotificationStatus> notifications = notificationService.sendAll(
+                    moved.stream().map(employee -> getNotificationData(employee, team.getName())).toList());
+            for (int i = 0; i < moved.size(); i++) {
+                notificationIds.put(moved.get(i).getId(), notifications.get(i).getId());
+            }
+        }
+
+        return new TeamReassignmentResult(moved, notificationIds, alreadyMembers, notFound);
+    }
+
+    /**
+     * Deletes a group of employees with one set-based delete. The existing
+     * employees are locked first, so the result reports exactly the rows removed
+     * by this call; IDs that do not match any employee are reported as not found.
+     *
+     * @param employeeIds the IDs of the employees to delete
+     * @return the deleted employees and the IDs that were not found
+     */
+    @Transactional
+    public EmployeeDeletionResult deleteAll(List<Integer> employeeIds) {
+        List<Employee> employees = employeeRepository.findByIdsForUpdate(employeeIds);
+        Set<Integer> foundIds = new HashSet<>();
+        employees.forEach(employee -> foundIds.add(employee.getId()));
+        List<Integer> notFound = employeeIds.stream().distinct().filter(id -> !foundIds.contains(id)).toList();
+
+        if (!employees.isEmpty()) {
+            employeeRepository.deleteByIds(foundIds);
+        }
+
+        return new EmployeeDeletionResult(employees, notFound);
+    }
+
+    private Map<String, String> getNotificationData(Employee employee) {
+        return getNotificationData(employee, teamRepository.findById(employee.getTeamId()).get().getName());
+    }
+
+    private Map<String, String> getNotificationData(Employee employee, String teamName) {
+        Map<String, String> employeeNotificationData = new HashMap<>();
+        employeeNotificationData.put("email", employee.getEmail());
+        employeeNotificationData.put("firstName", employee.getFirstName());
+        employeeNotificationData.put("newTeam", teamName);
+        employeeNotificationData.put("phone", employee.getPhone());
+
+        return employeeNotificationData;
+    }
+}
@@ -0,0 +1,202 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded store of the idempotency keys of recent requests and their responses.
+ *
+ * A key is reserved when its request starts and completed with the response
+ * once it has been handled, so a retry carrying the same key is answered with
+ * the stored response instead of being executed again. Keys expire after
+ * {@code idempotency.ttl}. Only the most recent {@code idempotency.max-entries}
+ * keys are kept, and the oldest ones are also evicted once the stored response
+ * bodies exceed {@code idempotency.max-bytes} in total. The keys are kept in
+ * reservation order, so an expired, released or evicted key leaves the store
+ * entirely. The outcome of every lookup is published as the
+ * {@code idempotency.requests} metric.
+ */
+@Component
+@Profile("!reactive")
+public class IdempotencyStore {
+
+    public static final String EXECUTED = "executed";
+    public static final String REPLAYED = "replayed";
+    public static final String IN_PROGRESS = "in_progress";
+    public static final String MISMATCH = "mismatch";
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+    // Guarded by this, in reservation order and so also in expiry order
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long storedBytes = 0;
+    private final Map<String, Counter> outcomes = new HashMap<>();
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.max-bytes:64MB}") DataSize maxBytes) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes.toBytes();
+        for (String result : List.of(EXECUTED, REPLAYED, IN_PROGRESS, MISMATCH)) {
+            outcomes.put(result, Counter.builder("idempotency.requests").tag("result", result)
+                    .description("Requests carrying an idempotency key").register(meterRegistry));
+        }
+        Gauge.builder("idempotency.entries", this, IdempotencyStore::size)
+                .description("Number of stored idempotency keys").register(meterRegistry);
+        Gauge.builder("idempotency.bytes", this, IdempotencyStore::storedBytes)
+                .description("Total size of the stored response bodies").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Reserves the given key for a new request, unless it is already known.
+     *
+     * @param key         the idempotency key, scoped to the endpoint
+     * @param fingerprint the fingerprint of the request body
+     * @return null if the key was reserved and the request should be executed,
+     *         otherwise the existing entry of the key
+     */
+    public synchronized Entry reserve(String key, String fingerprint) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, new Entry(fingerprint, now));
+        evictOverLimit();
+        return null;
+    }
+
+    /**
+     * Stores the response of a reserved key, to be returned to retries. A response
+     * larger than the whole store is not kept and the key is released instead.
+     *
+     * @param key      the reserved idempotency key
+     * @param response the response of the request
+     * @return true if the response was stored
+     */
+    public synchronized boolean complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.response != null) {
+            return false;
+        }
+        if (response.body().length > maxBytes) {
+            entries.remove(key);
+            return false;
+        }
+        entry.response = response;
+        storedBytes += response.body().length;
+        evictOverLimit();
+        return true;
+    }
+
+    /**
+     * Releases a reserved key whose request failed, so a retry executes it again.
+     *
+     * @param key the reserved idempotency key
+     */
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response == null) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long storedBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Counts the outcome of a request carrying an idempotency key.
+     *
+     * @param result {@link #EXECUTED}, {@link #REPLAYED}, {@link #IN_PROGRESS} or {@link #MISMATCH}
+     */
+    public void record(String result) {
+        outcomes.get(result).increment();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (now - entry.createdAt < ttlNanos) {
+                break;
+            }
+            oldest.remove();
+            storedBytes -= entry.size();
+        }
+    }
+
+    private void evictOverLimit() {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || storedBytes > maxBytes) && oldest.hasNext()) {
+            Entry entry = oldest.next();
+            oldest.remove();
+            storedBytes -= entry.size();
+        }
+    }
+
+    /**
+     * The state of an idempotency key: the fingerprint of the request that
+     * reserved it and, once that request has completed, its response.
+     */
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final long createdAt;
+        private volatile StoredResponse response;
+
+        private Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Returns the stored response.
+         *
+         * @return the response, or null while the request is still in progress
+         */
+        public StoredResponse getResponse() {
+            return response;
+        }
+
+        private int size() {
+            StoredResponse stored = response;
+            return stored != null ? stored.body().length : 0;
+        }
+    }
+
+    /**
+     * A response stored for an idempotency key.
+     *
+     * @param status      the HTTP status
+     * @param contentType the content type, or null
+     * @param headers     the headers replayed with the response
+     * @param body        the response body
+     */
+    public record StoredResponse(int status, String contentType, Map<String, String> headers, byte[] body) {
+    }
+}
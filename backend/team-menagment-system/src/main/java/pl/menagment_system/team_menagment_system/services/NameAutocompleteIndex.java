@@ -0,0 +1,473 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.menagment_system.team_menagment_system.dto.NameSuggestion;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * In-memory prefix index of the employee and team names, serving the
+ * autocomplete of the name fields and the team picker.
+ *
+ * The names are stored in sorted arrays of keys, one key for every word of the
+ * name up to its end, so "Jan Kowalski" is found by "jan k" as well as by "kow".
+ * Keys are lower-cased and stripped of diacritics like in the EmployeeSearchIndex.
+ * A lookup is a binary search for the first key with the prefix followed by a
+ * scan of the next keys, without any locking.
+ *
+ * The index is loaded once the application is ready, retrying every
+ * {@code autocomplete.retry-interval} until it succeeds, and kept up to date from
+ * the committed changes published by the repositories. A single background thread
+ * applies the pending changes in batches. The changed rows are kept in a small
+ * delta of sorted arrays, which is rebuilt on every batch and read together with
+ * the main arrays; once the delta covers {@value #COMPACTION_THRESHOLD} rows it is
+ * merged into new main arrays. Readers always see complete arrays, so suggestions
+ * may only lag behind a write by a few milliseconds. The lookup latency is published as the {@code autocomplete.requests}
+ * timer, the number of keys as {@code autocomplete.entries} and the estimated heap
+ * size of the arrays and keys as {@code autocomplete.memory}, tagged with the type.
+ */
+@Component
+@Profile("!reactive")
+public class NameAutocompleteIndex {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String TEAM = "team";
+
+    private static final Logger logger = LoggerFactory.getLogger(NameAutocompleteIndex.class);
+
+    // Number of changed rows kept in the delta before it is merged into the main arrays
+    static final int COMPACTION_THRESHOLD = 1024;
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final long retryIntervalMillis;
+    private final ScheduledExecutorService indexer;
+    private final Queue<EntityChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Timer employeeTimer;
+    private final Timer teamTimer;
+
+    private volatile Index employees = Index.EMPTY;
+    private volatile Index teams = Index.EMPTY;
+    private volatile boolean loaded = false;
+
+    public NameAutocompleteIndex(EmployeeRepository employeeRepository, TeamRepository teamRepository,
+            MeterRegistry meterRegistry, @Value("${autocomplete.retry-interval:30s}") Duration retryInterval) {
+        this.employeeRepository = employeeRepository;
+        this.teamRepository = teamRepository;
+        this.retryIntervalMillis = retryInterval.toMillis();
+        this.indexer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("autocomplete-indexer-"));
+        this.employeeTimer = registerMeters(meterRegistry, EMPLOYEE, () -> employees);
+        this.teamTimer = registerMeters(meterRegistry, TEAM, () -> teams);
+    }
+
+    /**
+     * Loads the index in the background when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        indexer.execute(this::load);
+    }
+
+    /**
+     * Queues a committed change of an employee or a team for indexing.
+     *
+     * @param event the change of an employee or a team
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        pending.add(event);
+        if (draining.compareAndSet(false, true)) {
+            indexer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Checks whether the index is loaded and can serve suggestions.
+     *
+     * @return true if suggestions can be served, false while loading or if the
+     *         index could not be loaded
+     */
+    public boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * Finds the names with a word starting with the given prefix.
+     *
+     * @param type   {@link #EMPLOYEE} or {@link #TEAM}
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of suggestions
+     * @return the matching names in alphabetical order of the matched keys
+     */
+    public List<NameSuggestion> suggest(String type, String prefix, int limit) {
+        boolean employee = EMPLOYEE.equals(type);
+        Timer.Sample sample = Timer.start();
+        try {
+            return (employee ? employees : teams).find(key(prefix), limit);
+        } finally {
+            sample.stop(employee ? employeeTimer : teamTimer);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the delta of the given type, not yet merged
+     * into the main arrays.
+     */
+    int deltaSize(String type) {
+        return (EMPLOYEE.equals(type) ? employees : teams).delta().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    /**
+     * Builds the index from the database. If the database cannot be read, the
+     * index stays unloaded and suggestions are refused until a retry succeeds.
+     * The changes committed in the meantime are read by the retry itself.
+     */
+    private void load() {
+        try {
+            List<Entry> employeeEntries = new ArrayList<>();
+            employeeRepository.streamAll(employee -> addEntries(employeeEntries, employee.getId(), displayName(employee)));
+            List<Entry> teamEntries = new ArrayList<>();
+            teamRepository.findAll().forEach(team -> addEntries(teamEntries, team.getId(), team.getName()));
+
+            employees = new Index(Snapshot.of(employeeEntries), Snapshot.EMPTY, Set.of());
+            teams = new Index(Snapshot.of(teamEntries), Snapshot.EMPTY, Set.of());
+            loaded = true;
+            logger.info("Loaded autocomplete index with {} employee and {} team keys ({} and {} bytes)",
+                    employees.size(), teams.size(), employees.bytes(), teams.bytes());
+        } catch (Exception ex) {
+            loaded = false;
+            logger.warn("Could not load autocomplete index, autocomplete is unavailable, retrying in {} ms: {}",
+                    retryIntervalMillis, ex.getMessage());
+            indexer.schedule(this::load, retryIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        try {
+            // Only the latest name of each row is indexed, null for deleted rows
+            Map<Integer, String> employeeChanges = new LinkedHashMap<>();
+            Map<Integer, String> teamChanges = new LinkedHashMap<>();
+            EntityChangedEvent event;
+            while ((event = pending.poll()) != null) {
+                boolean deleted = EntityChangedEvent.DELETED.equals(event.getType());
+                if (ChangeLogEntry.EMPLOYEE.equals(event.getEntity())) {
+                    employeeChanges.put(event.getId(), deleted ? null : displayName((Employee) event.getData()));
+                } else {
+                    teamChanges.put(event.getId(), deleted ? null : ((Team) event.getData()).getName());
+                }
+            }
+            if (loaded) {
+                if (!employeeChanges.isEmpty()) {
+                    employees = employees.with(employeeChanges);
+                }
+                if (!teamChanges.isEmpty()) {
+                    teams = teams.with(teamChanges);
+                }
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not update autocomplete index: {}", ex.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+            indexer.execute(this::drain);
+        }
+    }
+
+    private static Timer registerMeters(MeterRegistry meterRegistry, String type, Supplier<Index> index) {
+        Gauge.builder("autocomplete.entries", () -> index.get().size())
+                .description("Number of keys in the autocomplete index")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("autocomplete.memory", () -> index.get().bytes())
+                .description("Estimated heap size of the autocomplete index")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(meterRegistry);
+        return Timer.builder("autocomplete.requests")
+                .description("Duration of the autocomplete lookups")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String displayName(Employee employee) {
+        return employee.getFirstName() + " " + employee.getLastName();
+    }
+
+    /**
+     * Adds one entry for every word of the name, keyed by the rest of the name
+     * from that word on.
+     */
+    private static void addEntries(List<Entry> entries, int id, String name) {
+        String key = key(name);
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != ' ' && (i == 0 || key.charAt(i - 1) == ' ')) {
+                entries.add(new Entry(key.substring(i), id, name, i == 0));
+            }
+        }
+    }
+
+    private static String key(String value) {
+        return EmployeeSearchIndex.normalize(value).strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Estimates the heap size taken by an entry with compressed object pointers:
+     * its slots in the three arrays, its key and, for the first entry of a row,
+     * the display name shared by all entries of the row.
+     */
+    private static long entryBytes(String key, String name, boolean first) {
+        return 12 + stringBytes(key) + (first ? stringBytes(name) : 0);
+    }
+
+    private static long stringBytes(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length() && bytesPerChar == 1; i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+            }
+        }
+        long arrayBytes = 16 + (long) value.length() * bytesPerChar;
+        return 24 + ((arrayBytes + 7) & ~7);
+    }
+
+    private record Entry(String key, int id, String name, boolean first) {
+    }
+
+    /**
+     * The main arrays, the delta with the current entries of the rows changed
+     * since the main arrays were built, and the IDs of these rows, whose entries
+     * in the main arrays are outdated.
+     */
+    private record Index(Snapshot main, Snapshot delta, Set<Integer> changed) {
+
+        private static final Index EMPTY = new Index(Snapshot.EMPTY, Snapshot.EMPTY, Set.of());
+
+        private int size() {
+            return main.size() + delta.size();
+        }
+
+        private long bytes() {
+            return main.bytes + delta.bytes;
+        }
+
+        /**
+         * Returns a new index with the changes applied to the delta, or merged
+         * into new main arrays if the delta grows too large.
+         *
+         * @param changes the new display names by ID, null for deleted rows
+         */
+        private Index with(Map<Integer, String> changes) {
+            Set<Integer> newChanged = new HashSet<>(changed);
+            newChanged.addAll(changes.keySet());
+            Snapshot newDelta = delta.with(changes);
+            if (newChanged.size() < COMPACTION_THRESHOLD) {
+                return new Index(main, newDelta, newChanged);
+            }
+
+            Map<Integer, String> merged = new HashMap<>();
+            newChanged.forEach(id -> merged.put(id, null));
+            for (int i = 0; i < newDelta.size(); i++) {
+                merged.put(newDelta.ids[i], newDelta.names[i]);
+            }
+            return new Index(main.with(merged), Snapshot.EMPTY, Set.of());
+        }
+
+        /**
+         * Merges the matching keys of the main arrays and of the delta in key order,
+         * skipping the outdated entries of the main arrays.
+         */
+        private List<NameSuggestion> find(String prefix, int limit) {
+            int i = main.lowerBound(prefix);
+            int j = delta.lowerBound(prefix);
+            Set<Integer> seen = new HashSet<>();
+            List<NameSuggestion> suggestions = new ArrayList<>();
+            while (suggestions.size() < limit) {
+                boolean inMain = main.matches(i, prefix);
+                boolean inDelta = delta.matches(j, prefix);
+                Snapshot from;
+                int at;
+                if (inMain && (!inDelta || main.keys[i].compareTo(delta.keys[j]) <= 0)) {
+                    from = main;
+                    at = i++;
+                    if (changed.contains(main.ids[at])) {
+                        continue;
+                    }
+                } else if (inDelta) {
+                    from = delta;
+                    at = j++;
+                } else {
+                    break;
+                }
+                if (seen.add(from.ids[at])) {
+                    suggestions.add(new NameSuggestion(from.ids[at], from.names[at]));
+                }
+            }
+            return suggestions;
+        }
+    }
+
+    /**
+     * Immutable sorted arrays of the keys, with the ID and the display name of
+     * the row of each key.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], new String[0], 0);
+        private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingInt(Entry::id);
+
+        private final String[] keys;
+        private final int[] ids;
+        private final String[] names;
+        private final long bytes;
+
+        private Snapshot(String[] keys, int[] ids, String[] names, long bytes) {
+            this.keys = keys;
+            this.ids = ids;
+            this.names = names;
+            this.bytes = bytes;
+        }
+
+        private static Snapshot of(List<Entry> entries) {
+            entries.sort(ORDER);
+            String[] keys = new String[entries.size()];
+            int[] ids = new int[entries.size()];
+            String[] names = new String[entries.size()];
+            long bytes = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                keys[i] = entry.key();
+                ids[i] = entry.id();
+                names[i] = entry.name();
+                bytes += entryBytes(entry.key(), entry.name(), entry.first());
+            }
+            return new Snapshot(keys, ids, names, bytes);
+        }
+
+        private int size() {
+            return keys.length;
+        }
+
+        /**
+         * Returns a new snapshot with the entries of the changed rows replaced,
+         * merging the kept entries, which are already sorted, with the added ones.
+         *
+         * @param changes the new display names by ID, null for deleted rows
+         */
+        private Snapshot with(Map<Integer, String> changes) {
+            List<Entry> added = new ArrayList<>();
+            changes.forEach((id, name) -> {
+                if (name != null) {
+                    addEntries(added, id, name);
+                }
+            });
+            added.sort(ORDER);
+
+            long newBytes = bytes;
+            int removed = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (changes.containsKey(ids[i])) {
+                    removed++;
+                    newBytes -= entryBytes(keys[i], names[i], keys[i].length() == key(names[i]).length());
+                }
+            }
+            for (Entry entry : added) {
+                newBytes += entryBytes(entry.key(), entry.name(), entry.first());
+            }
+
+            int size = keys.length - removed + added.size();
+            String[] newKeys = new String[size];
+            int[] newIds = new int[size];
+            String[] newNames = new String[size];
+            int n = 0;
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (changes.containsKey(ids[i])) {
+                    continue;
+                }
+                while (next < added.size() && compare(added.get(next), keys[i], ids[i]) < 0) {
+                    Entry entry = added.get(next++);
+                    newKeys[n] = entry.key();
+                    newIds[n] = entry.id();
+                    newNames[n++] = entry.name();
+                }
+                newKeys[n] = keys[i];
+                newIds[n] = ids[i];
+                newNames[n++] = names[i];
+            }
+            while (next < added.size()) {
+                Entry entry = added.get(next++);
+                newKeys[n] = entry.key();
+                newIds[n] = entry.id();
+                newNames[n++] = entry.name();
+            }
+            return new Snapshot(newKeys, newIds, newNames, newBytes);
+        }
+
+        private static int compare(Entry entry, String key, int id) {
+            int order = entry.key().compareTo(key);
+            return order != 0 ? order : Integer.compare(entry.id(), id);
+        }
+
+        /**
+         * Returns the position of the first key not before the given prefix.
+         */
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private boolean matches(int at, String prefix) {
+            return at < keys.length && keys[at].startsWith(prefix);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.menagment_system.team_menagment_system.model.NotificationStatus;
+import pl.menagment_system.team_menagment_system.model.OutboxMessage;
+import pl.menagment_system.team_menagment_system.repository.OutboxRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Service sending the email and SMS notifications about employee changes and
+ * tracking their delivery status.
+ *
+ * In the default {@code async} mode (property {@code notifications.mode}) the
+ * messages are written to the employee outbox in the caller's transaction and
+ * published later by the OutboxRelay. The results reported by the email and SMS
+ * services on the "email-status-queue" and "sms-status-queue" update the stored
+ * status. The {@code sync} mode keeps the blocking request/reply behaviour, but
+ * only once the transaction commits, so the email and SMS round trips do not keep
+ * the written rows locked and nothing is sent for a change that is rolled back.
+ * A status becomes visible once the transaction that sends the notification
+ * commits, so a rolled back change leaves no status behind.
+ *
+ * The statuses are kept only in the memory of this instance, up to the most
+ * recent {@code notifications.status.max-entries}. They are lost on restart,
+ * and with several instances a status can only be found on the instance that
+ * sent the notification, while the delivery result is consumed by whichever
+ * instance reads it from the queue. Running more than one instance requires a
+ * shared store for the statuses.
+ */
+@Service
+@Profile("!reactive")
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    private final EmployeeEventPublisher publisher;
+    private final OutboxRepository outboxRepository;
+    private final boolean async;
+    private final int maxEntries;
+    private final Map<String, NotificationStatus> statuses = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public NotificationService(EmployeeEventPublisher publisher, OutboxRepository outboxRepository,
+            @Value("${notifications.mode:async}") String mode,
+            @Value("${notifications.status.max-entries:10000}") int maxEntries) {
+        this.publisher = publisher;
+        this.outboxRepository = outboxRepository;
+        this.async = !"sync".equalsIgnoreCase(mode);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sends the email and SMS notifications for an employee change. In async mode the
+     * notifications are only added to the outbox, so this method should be called in
+     * the transaction that stores the change. In sync mode they are sent once that
+     * transaction commits, or immediately if there is no transaction.
+     *
+     * @param notificationData the data of the notification (email, firstName, newTeam, phone)
+     * @return the status of the notification; both channels stay pending until they are sent
+     */
+    public NotificationStatus send(Map<String, String> notificationData) {
+        NotificationStatus status = register(UUID.randomUUID().toString());
+
+        if (async) {
+            outboxRepository.save(status.getId(), OutboxMessage.EMAIL, notificationData);
+            outboxRepository.save(status.getId(), OutboxMessage.SMS, notificationData);
+        } else {
+            afterCommit(() -> deliver(status, notificationData));
+        }
+        return status;
+    }
+
+    /**
+     * Sends the notifications for several employee changes. In async mode all of them
+     * are added to the outbox with a single batch insert. In sync mode they are sent
+     * one after another once the transaction commits.
+     *
+     * @param notificationData the data of each notification
+     * @return the statuses of the notifications, in the order of the given data
+     */
+    public List<NotificationStatus> sendAll(List<Map<String, String>> notificationData) {
+        List<NotificationStatus> result = new ArrayList<>();
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (Map<String, String> data : notificationData) {
+            NotificationStatus status = register(UUID.randomUUID().toString());
+            result.add(status);
+            if (async) {
+                messages.add(new OutboxMessage(0, status.getId(), OutboxMessage.EMAIL, data));
+                messages.add(new OutboxMessage(0, status.getId(), OutboxMessage.SMS, data));
+            }
+        }
+        if (result.isEmpty()) {
+            return result;
+        }
+        if (async) {
+            outboxRepository.saveAll(messages);
+        } else {
+            afterCommit(() -> {
+                for (int i = 0; i < result.size(); i++) {
+                    deliver(result.get(i), notificationData.get(i));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the status of a notification.
+     *
+     * @param id the ID of the notification
+     * @return an Optional containing the status, or an empty Optional if it is unknown or was evicted
+     */
+    public Optional<NotificationStatus> findById(String id) {
+        return Optional.ofNullable(statuses.get(id));
+    }
+
+    /**
+     * Receives the email delivery results reported by the email service.
+     *
+     * @param result         the result of the delivery ("SUCCESS" or "FAILED")
+     * @param notificationId the ID of the notification, sent as the correlation ID
+     */
+    @RabbitListener(queues = "email-status-queue")
+    public void receiveEmailStatus(String result, @Header(name = AmqpHeaders.CORRELATION_ID, required = false) String notificationId) {
+        NotificationStatus status = notificationId == null ? null : statuses.get(notificationId);
+        if (status == null) {
+            logger.debug("Ignoring email status for unknown notification {}", notificationId);
+            return;
+        }
+        status.setEmailStatus(result);
+    }
+
+    /**
+     * Receives the SMS delivery results reported by the SMS service.
+     *
+     * @param result         the result of the delivery ("SUCCESS" or "FAILED")
+     * @param notificationId the ID of the notification, sent as the correlation ID
+     */
+    @RabbitListener(queues = "sms-status-queue")
+    public void receiveSmsStatus(String result, @Header(name = AmqpHeaders.CORRELATION_ID, required = false) String notificationId) {
+        NotificationStatus status = notificationId == null ? null : statuses.get(notificationId);
+        if (status == null) {
+            logger.debug("Ignoring SMS status for unknown notification {}", notificationId);
+            return;
+        }
+        status.setSmsStatus(result);
+    }
+
+    private NotificationStatus register(String id) {
+        NotificationStatus status = new NotificationStatus(id);
+        afterCommit(() -> store(status));
+        return status;
+    }
+
+    private void deliver(NotificationStatus status, Map<String, String> notificationData) {
+        status.setEmailStatus(request("email", () -> publisher.sendEmployeeUpdateMail(notificationData)));
+        status.setSmsStatus(request("SMS", () -> publisher.sendEmployeeUpdateSms(notificationData)));
+    }
+
+    // The change is already committed, so a failed request only fails its notification
+    private String request(String channel, Supplier<String> call) {
+        try {
+            String result = call.get();
+            return result != null ? result : NotificationStatus.FAILED;
+        } catch (AmqpException ex) {
+            logger.warn("Could not send {} notification: {}", channel, ex.getMessage());
+            return NotificationStatus.FAILED;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void store(NotificationStatus status) {
+        statuses.put(status.getId(), status);
+        insertionOrder.add(status.getId());
+        // Evict the oldest notifications to keep the store bounded
+        while (statuses.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            statuses.remove(oldest);
+        }
+    }
+}
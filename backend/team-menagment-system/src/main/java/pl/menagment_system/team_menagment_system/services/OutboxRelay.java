@@ -0,0 +1,88 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.menagment_system.team_menagment_system.model.OutboxMessage;
+import pl.menagment_system.team_menagment_system.repository.OutboxRepository;
+
+import java.util.List;
+
+/**
+ * Background job publishing the notifications stored in the employee outbox.
+ *
+ * Every run drains the outbox in batches. A batch is locked, published to RabbitMQ,
+ * confirmed by the broker and deleted in one transaction, so a failed publish leaves
+ * the rows in place for the next run. Delivery is at least once.
+ */
+@Service
+@Profile("!reactive")
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final EmployeeEventPublisher publisher;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeout;
+
+    public OutboxRelay(OutboxRepository outboxRepository, EmployeeEventPublisher publisher,
+            RabbitTemplate rabbitTemplate, TransactionTemplate transactionTemplate,
+            @Value("${notifications.outbox.batch-size:100}") int batchSize,
+            @Value("${notifications.outbox.confirm-timeout:5000}") long confirmTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    /**
+     * Publishes all pending notifications, one batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval:500}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (Exception ex) {
+            logger.warn("Could not relay notifications from the outbox: {}", ex.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = outboxRepository.lockBatch(batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+
+            // Publish the whole batch on one channel and wait for the broker to confirm it
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxMessage message : messages) {
+                    if (OutboxMessage.EMAIL.equals(message.getChannel())) {
+                        publisher.publishEmployeeUpdateMail(operations, message.getNotificationId(), message.getPayload());
+                    } else {
+                        publisher.publishEmployeeUpdateSms(operations, message.getNotificationId(), message.getPayload());
+                    }
+                }
+                operations.waitForConfirmsOrDie(confirmTimeout);
+                return null;
+            });
+
+            outboxRepository.deleteByIds(messages.stream().map(OutboxMessage::getId).toList());
+            return messages.size();
+        });
+        return published != null ? published : 0;
+    }
+}
@@ -0,0 +1,93 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads into a single execution (single-flight).
+ *
+ * The first caller of a key runs the read, and every caller arriving with the
+ * same key while it is still running waits for it and receives the same result
+ * instead of running its own query. Nothing is kept once the read completes, so
+ * a later caller always runs a new read. Callers must therefore include in the
+ * key everything the result depends on, such as the request parameters and the
+ * data version, and must not modify the shared result.
+ *
+ * The callers are counted in the {@code singleflight.calls} metric, tagged with
+ * the name of the read and {@code result} {@code executed} or {@code coalesced}.
+ */
+@Component
+@Profile("!reactive")
+public class ReadCoalescer {
+
+    public static final String EXECUTED = "executed";
+    public static final String COALESCED = "coalesced";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.in-flight", inFlight, Map::size)
+                .description("Number of reads currently shared by concurrent callers").register(meterRegistry);
+    }
+
+    /**
+     * Runs the given read, or joins the identical read already in progress.
+     *
+     * @param name   the name of the read, e.g. {@code employees}
+     * @param key    the parameters identifying the result of the read
+     * @param loader the read to run if none is in progress
+     * @param <T>    the type of the result
+     * @return the result of the read, shared with the concurrent callers of the same key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existing != null) {
+            count(name, COALESCED);
+            try {
+                return (T) existing.join();
+            } catch (CompletionException ex) {
+                // Rethrow the failure of the shared read as it was thrown to its first caller
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+
+        count(name, EXECUTED);
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private void count(String name, String result) {
+        counters.computeIfAbsent(List.of(name, result), k -> Counter.builder("singleflight.calls")
+                .tag("name", name).tag("result", result)
+                .description("Callers of reads coalesced by ReadCoalescer").register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,179 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.model.TeamDeletionJob;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service deleting teams with many members in the background.
+ *
+ * Deleting a team in one statement removes all of its members through the
+ * {@code ON DELETE CASCADE} in a single transaction, which keeps every member row
+ * locked until the end. A deletion job instead deletes the members in chunks of
+ * {@code teams.deletion.chunk-size}, each in its own short transaction, and
+ * deletes the team row last. Concurrent employee writes only wait for the chunk
+ * being deleted. Jobs run one at a time on a dedicated thread. Only the most
+ * recent jobs are kept, up to {@code teams.deletion.max-jobs}.
+ */
+@Service
+@Profile("!reactive")
+public class TeamDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamDeletionService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxJobs;
+    private final ExecutorService worker;
+    private final Map<String, TeamDeletionJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    // The unfinished job of each team, so a repeated request does not start a second one
+    private final Map<Integer, TeamDeletionJob> activeJobs = new ConcurrentHashMap<>();
+
+    public TeamDeletionService(EmployeeRepository employeeRepository, TeamRepository teamRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${teams.deletion.chunk-size:500}") int chunkSize,
+            @Value("${teams.deletion.max-jobs:1000}") int maxJobs) {
+        this.employeeRepository = employeeRepository;
+        this.teamRepository = teamRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxJobs = maxJobs;
+        this.worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("team-deletion-"));
+    }
+
+    /**
+     * Checks whether the given team has too many members to be deleted in a single
+     * transaction and should be deleted by a job instead.
+     *
+     * @param teamId the ID of the team
+     * @return true if the team has more than one chunk of members
+     */
+    public boolean requiresJob(int teamId) {
+        return employeeRepository.countByTeamId(teamId) > chunkSize;
+    }
+
+    /**
+     * Starts a deletion job of the given team, or returns the unfinished job if the
+     * team is already being deleted.
+     *
+     * @param team the team to delete
+     * @return the job deleting the team
+     */
+    public synchronized TeamDeletionJob start(Team team) {
+        TeamDeletionJob active = activeJobs.get(team.getId());
+        if (active != null) {
+            return active;
+        }
+
+        TeamDeletionJob job = new TeamDeletionJob(UUID.randomUUID().toString(), team.getId(), team.getName());
+        register(job);
+        activeJobs.put(team.getId(), job);
+        worker.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Retrieves the unfinished deletion job of a team.
+     *
+     * @param teamId the ID of the team
+     * @return an Optional containing the job, or an empty Optional if the team is not being deleted
+     */
+    public Optional<TeamDeletionJob> findActive(int teamId) {
+        return Optional.ofNullable(activeJobs.get(teamId));
+    }
+
+    /**
+     * Retrieves a deletion job.
+     *
+     * @param id the ID of the job
+     * @return an Optional containing the job, or an empty Optional if it is unknown or was evicted
+     */
+    public Optional<TeamDeletionJob> findById(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void run(TeamDeletionJob job) {
+        int teamId = job.getTeamId();
+        job.setStatus(TeamDeletionJob.RUNNING);
+        String status;
+        String error = null;
+        try {
+            job.setTotalMembers(employeeRepository.countByTeamId(teamId));
+            int deleted;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("The deletion was interrupted by the shutdown of the service");
+                }
+                deleted = deleteChunk(teamId);
+                job.setDeletedMembers(job.getDeletedMembers() + deleted);
+            } while (deleted == chunkSize);
+
+            // Members added since the last chunk are removed by the cascade
+            int membersLeft = employeeRepository.countByTeamId(teamId);
+            teamRepository.deleteById(teamId);
+            job.setDeletedMembers(job.getDeletedMembers() + membersLeft);
+            status = TeamDeletionJob.COMPLETED;
+            logger.info("Deleted team {} with {} members", teamId, job.getDeletedMembers());
+        } catch (Exception ex) {
+            status = TeamDeletionJob.FAILED;
+            error = ex.getMessage();
+            logger.warn("Could not delete team {}: {}", teamId, ex.getMessage());
+        }
+
+        // A finished job is no longer returned for new requests to delete the team
+        activeJobs.remove(teamId);
+        job.setError(error);
+        job.setStatus(status);
+    }
+
+    private int deleteChunk(int teamId) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Integer> ids = employeeRepository.lockIdsByTeamId(teamId, chunkSize);
+            if (!ids.isEmpty()) {
+                employeeRepository.deleteByIds(ids);
+            }
+            return ids.size();
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private void register(TeamDeletionJob job) {
+        jobs.put(job.getId(), job);
+        insertionOrder.add(job.getId());
+        // Evict the oldest jobs to keep the store bounded
+        while (jobs.size() > maxJobs) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            jobs.remove(oldest);
+        }
+    }
+}
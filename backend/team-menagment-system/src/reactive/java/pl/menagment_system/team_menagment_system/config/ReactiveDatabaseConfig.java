@@ -0,0 +1,78 @@
+package pl.menagment_system.team_menagment_system.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the reactive read API, active with the {@code reactive} profile.
+ *
+ * The API runs on Netty with a fixed number of event loop threads and reads the
+ * database through a pool of non-blocking R2DBC connections. The pool is wrapped
+ * in a DatabaseClient instead of being exposed as a ConnectionFactory bean,
+ * because Spring Boot disables the JDBC DataSource when a ConnectionFactory bean
+ * exists, and the same build also runs as the servlet instance on JDBC.
+ *
+ * The classes of the reactive API are compiled only with the {@code reactive}
+ * Maven profile. The writers, RabbitMQ listeners and schedulers of the servlet
+ * instance are marked {@code @Profile("!reactive")} and are not started here.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveDatabaseConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${reactive.r2dbc.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${reactive.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${reactive.r2dbc.pool.max-idle-time:30m}") Duration maxIdleTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources reactiveLoopResources(@Value("${reactive.server.event-loop-threads:0}") int threads) {
+        int eventLoopThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return LoopResources.create("reactive-http", eventLoopThreads, true);
+    }
+
+    /**
+     * Serves the API on Netty rather than on Tomcat, which is on the classpath for
+     * the servlet variant and would be preferred otherwise.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(LoopResources reactiveLoopResources) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.runOn(reactiveLoopResources));
+        return factory;
+    }
+}
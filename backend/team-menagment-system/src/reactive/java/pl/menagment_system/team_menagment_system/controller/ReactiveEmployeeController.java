@@ -0,0 +1,124 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.repository.ColumnProjection;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.ReactiveEmployeeRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive variant of the employee read endpoints, active with the {@code reactive}
+ * profile. The requests are served by a fixed number of Netty event loop threads
+ * and the database is read through R2DBC, so waiting for a query holds no thread.
+ * The responses have the same format as the ones of the EmployeeController.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/employees")
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    public ReactiveEmployeeController(ReactiveEmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Retrieves employees, optionally paginated, filtered by team and restricted to
+     * the selected properties, with the same parameters as {@code GET /employees}
+     * of the servlet API.
+     *
+     * @param teamId the ID of the team to filter by, or null for all teams
+     * @param limit  the maximum number of employees on the page (1-500, default 50)
+     * @param after  the cursor token returned with the previous page
+     * @param fields the comma-separated properties to return, or null for all properties
+     * @return a Mono emitting the ResponseEntity with the success status, a message,
+     *         the employees and, for paginated requests, the cursor of the next page
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> getAllEmployees(
+            @RequestParam(required = false) Integer teamId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
+        Map<String, Object> response = new HashMap<>();
+        Mono<? extends List<?>> employees;
+        try {
+            boolean paginated = limit != null || after != null;
+            employees = fields != null
+                    ? readEmployees(teamId, paginated, limit, after, EmployeeRepository.COLUMNS.select(fields), response)
+                    : readEmployees(teamId, paginated, limit, after, response);
+        } catch (IllegalArgumentException ex) {
+            // Build invalid parameters response
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return Mono.just(ResponseEntity.status(400).body(response));
+        }
+
+        return employees.map(list -> {
+            response.put("success", true);
+            response.put("message", list.isEmpty()
+                    ? "Nie znaleziono pracowników."
+                    : "Pracownicy zostali pomyślnie pobrani.");
+            response.put("data", list);
+            return ResponseEntity.ok(response);
+        }).onErrorResume(ex -> {
+            // Build unexpected error response
+            response.clear();
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd.");
+            return Mono.just(ResponseEntity.status(500).body(response));
+        });
+    }
+
+    /**
+     * Streams all employees as newline-delimited JSON, one employee per line.
+     * Rows are written as they arrive from the database, with backpressure from
+     * the client connection.
+     *
+     * @return a Flux of all employees in ID order
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> streamEmployees() {
+        return employeeRepository.findAll();
+    }
+
+    private Mono<List<Employee>> readEmployees(Integer teamId, boolean paginated, Integer limit, String after,
+            Map<String, Object> response) {
+        if (teamId != null && paginated) {
+            return ReactivePageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPageByTeamId(teamId, afterId, size),
+                    Employee::getId, response);
+        } else if (teamId != null) {
+            return employeeRepository.findByTeamId(teamId).collectList();
+        } else if (paginated) {
+            return ReactivePageCursor.readPage(limit, after, employeeRepository::findPage, Employee::getId, response);
+        }
+        return employeeRepository.findAll().collectList();
+    }
+
+    private Mono<List<Map<String, Object>>> readEmployees(Integer teamId, boolean paginated, Integer limit,
+            String after, ColumnProjection projection, Map<String, Object> response) {
+        if (teamId != null && paginated) {
+            return ReactivePageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPageByTeamId(teamId, afterId, size, projection),
+                    row -> (int) row.get("id"), response);
+        } else if (teamId != null) {
+            return employeeRepository.findByTeamId(teamId, projection).collectList();
+        } else if (paginated) {
+            return ReactivePageCursor.readPage(limit, after,
+                    (afterId, size) -> employeeRepository.findPage(afterId, size, projection),
+                    row -> (int) row.get("id"), response);
+        }
+        return employeeRepository.findAll(projection).collectList();
+    }
+}
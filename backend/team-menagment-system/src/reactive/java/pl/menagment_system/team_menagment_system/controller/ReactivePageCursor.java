@@ -0,0 +1,43 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keyset pagination of the reactive read API, with the cursor tokens of PageCursor.
+ */
+final class ReactivePageCursor {
+
+    private ReactivePageCursor() {
+    }
+
+    /**
+     * Reads one page of rows from a reactive query and stores the cursor of the
+     * following page under the {@code nextCursor} key of the response.
+     *
+     * @param limit    the requested page size, or null for the default
+     * @param after    the cursor token of the previous page, or null for the first page
+     * @param query    the query receiving the start ID and the number of rows to read
+     * @param idOf     the function returning the ID of a row
+     * @param response the response map to store the next cursor in
+     * @param <T>      the type of the rows
+     * @return a Mono emitting the rows of the requested page
+     * @throws IllegalArgumentException if the limit or the cursor is invalid
+     */
+    static <T> Mono<List<T>> readPage(Integer limit, String after, BiFunction<Integer, Integer, Flux<T>> query,
+            ToIntFunction<T> idOf, Map<String, Object> response) {
+        int pageSize = PageCursor.resolveLimit(limit);
+        // Fetch one extra row to find out whether another page exists
+        return query.apply(PageCursor.decode(after), pageSize + 1).collectList().map(rows -> {
+            boolean hasMore = rows.size() > pageSize;
+            List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+            response.put("nextCursor", hasMore ? PageCursor.encode(idOf.applyAsInt(page.get(page.size() - 1))) : null);
+            return page;
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.repository.ReactiveEmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.ReactiveTeamRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive variant of the team read endpoints, active with the {@code reactive}
+ * profile. The responses have the same format as the ones of the TeamController.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/teams")
+public class ReactiveTeamController {
+
+    private final ReactiveTeamRepository teamRepository;
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    public ReactiveTeamController(ReactiveTeamRepository teamRepository,
+            ReactiveEmployeeRepository employeeRepository) {
+        this.teamRepository = teamRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Retrieves all teams, restricted to the selected properties when {@code fields} is given.
+     *
+     * @param fields the comma-separated properties to return, or null for all properties
+     * @return a Mono emitting the ResponseEntity with the success status, a message and the teams
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllTeams(@RequestParam(required = false) String fields) {
+        Map<String, Object> response = new HashMap<>();
+        Mono<? extends List<?>> teams;
+        try {
+            teams = fields != null
+                    ? teamRepository.findAll(TeamRepository.COLUMNS.select(fields)).collectList()
+                    : teamRepository.findAll().collectList();
+        } catch (IllegalArgumentException ex) {
+            // Build invalid fields parameter response
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return Mono.just(ResponseEntity.status(400).body(response));
+        }
+
+        return teams.<ResponseEntity<Object>>map(list -> {
+            response.put("success", true);
+            response.put("message", list.isEmpty() ? "Nie pobrano żadnych zespołów." : "Zespoły pobrane pomyślnie.");
+            response.put("data", list);
+            return ResponseEntity.ok(response);
+        }).onErrorResume(ex -> {
+            response.clear();
+            response.put("success", false);
+            response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania zespołów.");
+            response.put("error", ex.getMessage());
+            return Mono.just(ResponseEntity.status(500).body(response));
+        });
+    }
+
+    /**
+     * Retrieves the employees of a single team, with the same {@code limit} and
+     * {@code after} pagination parameters as {@code GET /employees}.
+     *
+     * @param id    the ID of the team
+     * @param limit the maximum number of employees on the page (1-500, default 50)
+     * @param after the cursor token returned with the previous page
+     * @return a Mono emitting the ResponseEntity with the team's employees, or a 404
+     *         response if the team does not exist
+     */
+    @GetMapping("/{id}/employees")
+    public Mono<ResponseEntity<Object>> getTeamEmployees(
+            @PathVariable int id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        Map<String, Object> response = new HashMap<>();
+        Mono<List<Employee>> employees;
+        try {
+            employees = limit != null || after != null
+                    ? ReactivePageCursor.readPage(limit, after,
+                            (afterId, size) -> employeeRepository.findPageByTeamId(id, afterId, size),
+                            Employee::getId, response)
+                    : employeeRepository.findByTeamId(id).collectList();
+        } catch (IllegalArgumentException ex) {
+            response.put("success", false);
+            response.put("message", ex.getMessage());
+            return Mono.just(ResponseEntity.status(400).body(response));
+        }
+
+        return teamRepository.findById(id)
+                .flatMap(team -> employees.<ResponseEntity<Object>>map(list -> {
+                    response.put("success", true);
+                    response.put("message", list.isEmpty()
+                            ? "Nie znaleziono pracowników zespołu."
+                            : "Pracownicy zespołu zostali pomyślnie pobrani.");
+                    response.put("data", list);
+                    return ResponseEntity.ok(response);
+                }))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    response.put("success", false);
+                    response.put("message", "Zespół o ID " + id + " nie został znaleziony.");
+                    return ResponseEntity.status(404).body(response);
+                }))
+                .onErrorResume(ex -> {
+                    response.clear();
+                    response.put("success", false);
+                    response.put("message", "Wystąpił nieoczekiwany błąd podczas pobierania pracowników zespołu.");
+                    response.put("error", ex.getMessage());
+                    return Mono.just(ResponseEntity.status(500).body(response));
+                });
+    }
+}
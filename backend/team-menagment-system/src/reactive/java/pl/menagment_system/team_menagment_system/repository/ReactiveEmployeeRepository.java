@@ -0,0 +1,171 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import reactor.core.publisher.Flux;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking read access to the Employee entity through R2DBC, used by the
+ * reactive read API. The queries match the ones of the EmployeeRepository, and
+ * rows are emitted while they are read from the connection.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveEmployeeRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    /**
+     * Retrieves all employees ordered by ID.
+     *
+     * @return a Flux of Employee objects
+     */
+    public Flux<Employee> findAll() {
+        return query("SELECT * FROM employees ORDER BY ID");
+    }
+
+    /**
+     * Retrieves one page of employees ordered by ID, starting after the given ID.
+     *
+     * @param afterId the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit   the maximum number of employees to return
+     * @return a Flux of at most {@code limit} Employee objects
+     */
+    public Flux<Employee> findPage(int afterId, int limit) {
+        return query("SELECT * FROM employees WHERE ID > ? ORDER BY ID LIMIT ?", afterId, limit);
+    }
+
+    /**
+     * Retrieves all employees that belong to the given team.
+     *
+     * @param teamId the ID of the team
+     * @return a Flux of Employee objects ordered by ID
+     */
+    public Flux<Employee> findByTeamId(int teamId) {
+        return query("SELECT * FROM employees WHERE team_id = ? ORDER BY ID", teamId);
+    }
+
+    /**
+     * Retrieves one page of the employees of the given team, ordered by ID and
+     * starting after the given ID.
+     *
+     * @param teamId  the ID of the team
+     * @param afterId the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit   the maximum number of employees to return
+     * @return a Flux of at most {@code limit} Employee objects
+     */
+    public Flux<Employee> findPageByTeamId(int teamId, int afterId, int limit) {
+        return query("SELECT * FROM employees WHERE team_id = ? AND ID > ? ORDER BY ID LIMIT ?", teamId, afterId, limit);
+    }
+
+    /**
+     * Retrieves the selected columns of all employees.
+     *
+     * @param projection the columns to read, see {@link EmployeeRepository#COLUMNS}
+     * @return a Flux of rows keyed by property name, ordered by ID
+     */
+    public Flux<Map<String, Object>> findAll(ColumnProjection projection) {
+        return query(projection, "SELECT " + projection.selectList() + " FROM employees ORDER BY ID");
+    }
+
+    /**
+     * Retrieves the selected columns of one page of employees.
+     *
+     * @param afterId    the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit      the maximum number of employees to return
+     * @param projection the columns to read, see {@link EmployeeRepository#COLUMNS}
+     * @return a Flux of at most {@code limit} rows keyed by property name
+     */
+    public Flux<Map<String, Object>> findPage(int afterId, int limit, ColumnProjection projection) {
+        return query(projection, "SELECT " + projection.selectList() + " FROM employees WHERE ID > ? ORDER BY ID LIMIT ?",
+                afterId, limit);
+    }
+
+    /**
+     * Retrieves the selected columns of the employees of the given team.
+     *
+     * @param teamId     the ID of the team
+     * @param projection the columns to read, see {@link EmployeeRepository#COLUMNS}
+     * @return a Flux of rows keyed by property name, ordered by ID
+     */
+    public Flux<Map<String, Object>> findByTeamId(int teamId, ColumnProjection projection) {
+        return query(projection, "SELECT " + projection.selectList() + " FROM employees WHERE team_id = ? ORDER BY ID",
+                teamId);
+    }
+
+    /**
+     * Retrieves the selected columns of one page of the employees of the given team.
+     *
+     * @param teamId     the ID of the team
+     * @param afterId    the ID of the last employee of the previous page, or 0 for the first page
+     * @param limit      the maximum number of employees to return
+     * @param projection the columns to read, see {@link EmployeeRepository#COLUMNS}
+     * @return a Flux of at most {@code limit} rows keyed by property name
+     */
+    public Flux<Map<String, Object>> findPageByTeamId(int teamId, int afterId, int limit, ColumnProjection projection) {
+        return query(projection, "SELECT " + projection.selectList()
+                + " FROM employees WHERE team_id = ? AND ID > ? ORDER BY ID LIMIT ?", teamId, afterId, limit);
+    }
+
+    private Flux<Employee> query(String sql, Object... args) {
+        return bind(sql, args).map(ReactiveEmployeeRepository::mapEmployee).all();
+    }
+
+    private Flux<Map<String, Object>> query(ColumnProjection projection, String sql, Object... args) {
+        Map<String, String> columns = projection.columnNames();
+        return bind(sql, args).map(row -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            columns.forEach((property, column) -> values.put(property, toModelValue(row.get(column))));
+            return values;
+        }).all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(String sql, Object... args) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int i = 0; i < args.length; i++) {
+            spec = spec.bind(i, args[i]);
+        }
+        return spec;
+    }
+
+    private static Employee mapEmployee(Readable row) {
+        LocalDate hireDate = row.get("hire_date", LocalDate.class);
+        Employee employee = new Employee(
+                intValue(row, "ID"),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("phone", String.class),
+                hireDate != null ? Date.valueOf(hireDate) : null,
+                row.get("role", String.class),
+                intValue(row, "team_id"));
+        employee.setVersion(intValue(row, "version"));
+        return employee;
+    }
+
+    private static int intValue(Readable row, String column) {
+        // Like ResultSet.getInt, a NULL is read as 0
+        Integer value = row.get(column, Integer.class);
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Converts the R2DBC date values to the java.sql.Date used by the JDBC
+     * repositories, so both APIs serialize the hire date the same way.
+     */
+    private static Object toModelValue(Object value) {
+        return value instanceof LocalDate date ? Date.valueOf(date) : value;
+    }
+}
@@ -0,0 +1,74 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pl.menagment_system.team_menagment_system.model.Team;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking read access to the Team entity through R2DBC, used by the
+ * reactive read API.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTeamRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTeamRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    /**
+     * Retrieves all teams.
+     *
+     * @return a Flux of Team objects
+     */
+    public Flux<Team> findAll() {
+        return databaseClient.sql("SELECT * FROM teams")
+                .map(ReactiveTeamRepository::mapTeam)
+                .all();
+    }
+
+    /**
+     * Retrieves the selected columns of all teams.
+     *
+     * @param projection the columns to read, see {@link TeamRepository#COLUMNS}
+     * @return a Flux of rows keyed by property name
+     */
+    public Flux<Map<String, Object>> findAll(ColumnProjection projection) {
+        Map<String, String> columns = projection.columnNames();
+        return databaseClient.sql("SELECT " + projection.selectList() + " FROM teams")
+                .map(row -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    columns.forEach((property, column) -> values.put(property, row.get(column)));
+                    return values;
+                })
+                .all();
+    }
+
+    /**
+     * Retrieves a team by its ID.
+     *
+     * @param id the ID of the team to retrieve
+     * @return a Mono emitting the team, or an empty Mono if it does not exist
+     */
+    public Mono<Team> findById(int id) {
+        return databaseClient.sql("SELECT * FROM teams WHERE ID = ?")
+                .bind(0, id)
+                .map(ReactiveTeamRepository::mapTeam)
+                .one();
+    }
+
+    private static Team mapTeam(Readable row) {
+        Team team = new Team(row.get("ID", Integer.class), row.get("name", String.class));
+        team.setVersion(row.get("version", Integer.class));
+        return team;
+    }
+}
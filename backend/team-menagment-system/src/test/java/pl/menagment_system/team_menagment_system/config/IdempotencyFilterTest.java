@@ -0,0 +1,155 @@
+package pl.menagment_system.team_menagment_system.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import pl.menagment_system.team_menagment_system.services.IdempotencyStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"Marketing\"}";
+    private static final String CREATED = "{\"success\":true,\"message\":\"Zespół został pomyślnie dodany.\"}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        IdempotencyStore store = new IdempotencyStore(meterRegistry, Duration.ofHours(24), 100, DataSize.ofMegabytes(1));
+        filter = new IdempotencyFilter(store, new ObjectMapper());
+    }
+
+    @Test
+    void retryIsAnsweredWithTheStoredResponse() throws Exception {
+        FilterChain created = (request, response) -> {
+            executions.incrementAndGet();
+            assertThat(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+            writeCreated((HttpServletResponse) response);
+        };
+
+        MockHttpServletResponse first = post("key-1", BODY, created);
+        MockHttpServletResponse retry = post("key-1", BODY, created);
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.getHeader(HttpHeaders.LOCATION)).isEqualTo("/teams/5");
+        assertThat(retry.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(retry.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(CREATED);
+        assertThat(count(IdempotencyStore.EXECUTED)).isEqualTo(1);
+        assertThat(count(IdempotencyStore.REPLAYED)).isEqualTo(1);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsGetsConflict() throws Exception {
+        MockHttpServletResponse[] retry = new MockHttpServletResponse[1];
+        FilterChain slow = (request, response) -> {
+            executions.incrementAndGet();
+            retry[0] = post("key-1", BODY, (r, s) -> executions.incrementAndGet());
+            writeCreated((HttpServletResponse) response);
+        };
+
+        MockHttpServletResponse first = post("key-1", BODY, slow);
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry[0].getStatus()).isEqualTo(409);
+        assertThat(retry[0].getContentAsString(StandardCharsets.UTF_8)).contains("\"success\":false");
+        assertThat(count(IdempotencyStore.IN_PROGRESS)).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyGetsUnprocessableEntity() throws Exception {
+        FilterChain created = (request, response) -> {
+            executions.incrementAndGet();
+            writeCreated((HttpServletResponse) response);
+        };
+
+        post("key-1", BODY, created);
+        MockHttpServletResponse reused = post("key-1", "{\"name\":\"Sprzedaż\"}", created);
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(reused.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isNull();
+        assertThat(count(IdempotencyStore.MISMATCH)).isEqualTo(1);
+        // The key belongs to its endpoint
+        MockHttpServletRequest employees = request("key-1", "{\"name\":\"Sprzedaż\"}");
+        employees.setRequestURI("/employees");
+        filter.doFilter(employees, new MockHttpServletResponse(), created);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void serverErrorReleasesTheKey() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+        };
+        FilterChain created = (request, response) -> {
+            executions.incrementAndGet();
+            writeCreated((HttpServletResponse) response);
+        };
+
+        MockHttpServletResponse failed = post("key-1", BODY, failing);
+        MockHttpServletResponse retry = post("key-1", BODY, created);
+
+        assertThat(failed.getStatus()).isEqualTo(500);
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isNull();
+    }
+
+    @Test
+    void invalidKeyIsRejected() throws Exception {
+        MockHttpServletResponse response = post("x".repeat(256), BODY, (request, r) -> executions.incrementAndGet());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(executions).hasValue(0);
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(key, body), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/teams");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static void writeCreated(HttpServletResponse response) throws IOException {
+        response.setStatus(201);
+        response.setHeader(HttpHeaders.LOCATION, "/teams/5");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(CREATED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("idempotency.requests").tag("result", result).counter().count();
+    }
+}
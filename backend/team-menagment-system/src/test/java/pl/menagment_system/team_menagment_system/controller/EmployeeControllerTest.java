@@ -0,0 +1,95 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import pl.menagment_system.team_menagment_system.dto.EmployeeRequestDTO;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.repository.DataVersions;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.services.ChangeFeedService;
+import pl.menagment_system.team_menagment_system.services.EmployeeSearchIndex;
+import pl.menagment_system.team_menagment_system.services.EmployeeService;
+import pl.menagment_system.team_menagment_system.services.ReadCoalescer;
+
+import java.sql.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeControllerTest {
+
+    private static final int ID = 5;
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeService employeeService;
+    private EmployeeController controller;
+    private EmployeeRequestDTO changes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        employeeRepository = mock(EmployeeRepository.class);
+        employeeService = mock(EmployeeService.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        controller = new EmployeeController(employeeRepository, employeeService, mock(DataVersions.class),
+                mock(ChangeFeedService.class), mock(EmployeeSearchIndex.class), mock(ReadCoalescer.class),
+                objectMapper, mock(Validator.class), 1000);
+        changes = objectMapper.readValue("{\"role\":\"Team Leader\"}", EmployeeRequestDTO.class);
+
+        Employee employee = new Employee(ID, "Jan", "Kowalski", "jan.kowalski@example.com", "+48123456789",
+                Date.valueOf("2023-01-15"), "Developer", 1);
+        employee.setVersion(3);
+        when(employeeRepository.findById(ID)).thenReturn(Optional.of(employee));
+    }
+
+    @Test
+    void matchingIfMatchUpdatesTheEmployee() {
+        ResponseEntity<Map<String, Object>> response = controller.updateEmployee(ID, changes, "\"3\"");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody()).containsEntry("success", true);
+        verify(employeeService).update(any(Employee.class), anyBoolean());
+    }
+
+    @Test
+    void outdatedIfMatchIsRejectedWithTheCurrentTag() {
+        ResponseEntity<Map<String, Object>> response = controller.updateEmployee(ID, changes, "\"2\"");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(response.getBody()).containsEntry("success", false);
+        verify(employeeService, never()).update(any(Employee.class), anyBoolean());
+    }
+
+    @Test
+    void malformedIfMatchIsBadRequest() {
+        ResponseEntity<Map<String, Object>> response = controller.updateEmployee(ID, changes, "3");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(response.getBody()).containsEntry("message", "Nieprawidłowy nagłówek If-Match.");
+        verify(employeeService, never()).update(any(Employee.class), anyBoolean());
+    }
+
+    @Test
+    void updateRacingAnotherWriteIsConflict() {
+        // The version-guarded UPDATE matched no row
+        when(employeeService.update(any(Employee.class), anyBoolean()))
+                .thenThrow(new OptimisticLockingFailureException("Employee 5 was changed or deleted since version 3"));
+
+        ResponseEntity<Map<String, Object>> response = controller.updateEmployee(ID, changes, null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(response.getBody()).containsEntry("success", false);
+        assertThat((String) response.getBody().get("message")).contains("został w międzyczasie zmieniony");
+    }
+}
@@ -0,0 +1,44 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityTagTest {
+
+    @Test
+    void tagIsTheQuotedVersion() {
+        assertThat(EntityTag.of(3)).isEqualTo("\"3\"");
+    }
+
+    @Test
+    void absentOrWildcardHeaderMatchesAnyVersion() {
+        assertThat(EntityTag.matches(null, 3)).isTrue();
+        assertThat(EntityTag.matches(" ", 3)).isTrue();
+        assertThat(EntityTag.matches(" * ", 3)).isTrue();
+    }
+
+    @Test
+    void currentTagMatches() {
+        assertThat(EntityTag.matches("\"3\"", 3)).isTrue();
+        assertThat(EntityTag.matches("\"1\", \"3\"", 3)).isTrue();
+    }
+
+    @Test
+    void otherOrWeakTagDoesNotMatch() {
+        assertThat(EntityTag.matches("\"2\"", 3)).isFalse();
+        assertThat(EntityTag.matches("\"1\",\"2\"", 3)).isFalse();
+        assertThat(EntityTag.matches("W/\"3\"", 3)).isFalse();
+    }
+
+    @Test
+    void malformedHeaderIsRejected() {
+        assertThatThrownBy(() -> EntityTag.matches("3", 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nieprawidłowy nagłówek If-Match.");
+        assertThatThrownBy(() -> EntityTag.matches("\"3\", 4", 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EntityTag.matches("\"3", 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EntityTag.matches("\"3\",", 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package pl.menagment_system.team_menagment_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import pl.menagment_system.team_menagment_system.dto.TeamRequestDTO;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.repository.DataVersions;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+import pl.menagment_system.team_menagment_system.services.ChangeFeedService;
+import pl.menagment_system.team_menagment_system.services.EmployeeService;
+import pl.menagment_system.team_menagment_system.services.ReadCoalescer;
+import pl.menagment_system.team_menagment_system.services.TeamDeletionService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeamControllerTest {
+
+    private static final int ID = 2;
+
+    private TeamRepository teamRepository;
+    private DataVersions dataVersions;
+    private TeamController controller;
+    private TeamRequestDTO changes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        teamRepository = mock(TeamRepository.class);
+        dataVersions = new DataVersions();
+        ObjectMapper objectMapper = new ObjectMapper();
+        controller = new TeamController(teamRepository, mock(EmployeeRepository.class), mock(EmployeeService.class),
+                dataVersions, mock(ChangeFeedService.class), mock(TeamDeletionService.class),
+                new ReadCoalescer(new SimpleMeterRegistry()), objectMapper, 1000);
+        changes = objectMapper.readValue("{\"name\":\"Sprzedaż\"}", TeamRequestDTO.class);
+
+        Team team = new Team(ID, "Marketing");
+        team.setVersion(7);
+        when(teamRepository.findCurrentById(ID)).thenReturn(Optional.of(team));
+    }
+
+    @Test
+    void unchangedTeamsAreNotModified() {
+        when(teamRepository.findAll()).thenReturn(List.of(new Team(ID, "Marketing")));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ResponseEntity<Object> response = controller.getAllTeams(null,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/teams"), first));
+        String eTag = response.getHeaders().getETag();
+        assertThat(eTag).isEqualTo(dataVersions.teamsETag());
+
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+        assertThat(controller.getAllTeams(null, revalidation(eTag, revalidated))).isNull();
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        verify(teamRepository, times(1)).findAll();
+
+        // After a write the same tag no longer matches and the teams are read again
+        dataVersions.teamsChanged();
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+        response = controller.getAllTeams(null, revalidation(eTag, changed));
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+        verify(teamRepository, times(2)).findAll();
+    }
+
+    @Test
+    void matchingIfMatchUpdatesTheTeam() {
+        when(teamRepository.update(any(Team.class))).thenAnswer(invocation -> {
+            Team team = invocation.getArgument(0);
+            team.setVersion(team.getVersion() + 1);
+            return 1;
+        });
+
+        ResponseEntity<Object> response = controller.updateTeam(ID, changes, "\"6\", \"7\"");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"8\"");
+        assertThat(body(response)).containsEntry("success", true);
+    }
+
+    @Test
+    void outdatedIfMatchIsRejectedWithTheCurrentTag() {
+        ResponseEntity<Object> response = controller.updateTeam(ID, changes, "\"6\"");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"7\"");
+        verify(teamRepository, never()).update(any(Team.class));
+    }
+
+    @Test
+    void malformedIfMatchIsBadRequest() {
+        ResponseEntity<Object> response = controller.updateTeam(ID, changes, "W/7");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(body(response)).containsEntry("message", "Nieprawidłowy nagłówek If-Match.");
+        verify(teamRepository, never()).update(any(Team.class));
+    }
+
+    @Test
+    void updateRacingAnotherWriteIsConflict() {
+        // The version-guarded UPDATE matched no row
+        when(teamRepository.update(any(Team.class)))
+                .thenThrow(new OptimisticLockingFailureException("Team 2 was changed or deleted since version 7"));
+
+        ResponseEntity<Object> response = controller.updateTeam(ID, changes, null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(body(response)).containsEntry("success", false);
+        assertThat((String) body(response).get("message")).contains("został w międzyczasie zmieniony");
+    }
+
+    private static ServletWebRequest revalidation(String eTag, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/teams");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        return new ServletWebRequest(request, response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> body(ResponseEntity<Object> response) {
+        return (Map<String, Object>) response.getBody();
+    }
+}
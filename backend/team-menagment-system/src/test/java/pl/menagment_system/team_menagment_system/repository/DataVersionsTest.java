@@ -0,0 +1,79 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionsTest {
+
+    private final DataVersions dataVersions = new DataVersions();
+
+    @Test
+    void writeOutsideATransactionBumpsTheVersionOnce() {
+        String before = dataVersions.employeesETag();
+
+        dataVersions.employeesChanged();
+
+        assertThat(dataVersions.employeesETag()).isNotEqualTo(before).endsWith(".1\"");
+        assertThat(dataVersions.teamsETag()).endsWith(".0\"");
+    }
+
+    @Test
+    void writeInATransactionBumpsTheVersionAgainAfterCommit() {
+        String before = dataVersions.teamsETag();
+
+        List<TransactionSynchronization> synchronizations = inTransaction(dataVersions::teamsChanged);
+        // A request reading the data before the commit sees the old rows
+        String readBeforeCommit = dataVersions.teamsETag();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        String afterCommit = dataVersions.teamsETag();
+
+        assertThat(readBeforeCommit).isNotEqualTo(before).endsWith(".1\"");
+        // The response built from the old rows can never match the tag of the committed data
+        assertThat(afterCommit).isNotEqualTo(readBeforeCommit).isNotEqualTo(before).endsWith(".2\"");
+    }
+
+    @Test
+    void rolledBackWriteIsNotBumpedAgain() {
+        List<TransactionSynchronization> synchronizations = inTransaction(dataVersions::employeesChanged);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(dataVersions.employeesETag()).endsWith(".1\"");
+    }
+
+    @Test
+    void combinedTagFollowsBothTables() {
+        String initial = dataVersions.teamEmployeesETag();
+
+        dataVersions.teamsChanged();
+        String afterTeams = dataVersions.teamEmployeesETag();
+        dataVersions.employeesChanged();
+
+        assertThat(afterTeams).isNotEqualTo(initial);
+        assertThat(dataVersions.teamEmployeesETag()).isNotEqualTo(afterTeams).endsWith(".1.1\"");
+    }
+
+    @Test
+    void tagsOfDifferentTablesAndRestartsDiffer() throws InterruptedException {
+        Thread.sleep(2);
+        DataVersions restarted = new DataVersions();
+
+        assertThat(dataVersions.employeesETag()).isNotEqualTo(dataVersions.teamsETag());
+        assertThat(restarted.employeesETag()).isNotEqualTo(dataVersions.employeesETag());
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
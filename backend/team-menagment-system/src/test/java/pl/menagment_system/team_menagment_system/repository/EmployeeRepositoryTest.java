@@ -0,0 +1,71 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+
+import java.sql.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataVersions dataVersions;
+    private ChangeLogRepository changeLog;
+    private ApplicationEventPublisher eventPublisher;
+    private EmployeeRepository repository;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        dataVersions = mock(DataVersions.class);
+        changeLog = mock(ChangeLogRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        EmployeeStatistics statistics = mock(EmployeeStatistics.class);
+        when(statistics.lockAndCount(anyString(), anyInt(), any())).thenReturn(new EmployeeStatistics.Delta());
+        repository = new EmployeeRepository(jdbcTemplate, dataVersions, changeLog, eventPublisher, statistics);
+
+        employee = new Employee(5, "Jan", "Kowalski", "jan.kowalski@example.com", "+48123456789",
+                Date.valueOf("2023-01-15"), "Team Leader", 1);
+        employee.setVersion(3);
+    }
+
+    @Test
+    void updateBumpsTheVersion() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        assertThat(repository.update(employee)).isEqualTo(1);
+
+        assertThat(employee.getVersion()).isEqualTo(4);
+        verify(changeLog).record(ChangeLogEntry.EMPLOYEE, 5, ChangeLogEntry.UPSERT);
+        verify(dataVersions).employeesChanged();
+    }
+
+    @Test
+    void updateOfAChangedVersionFailsWithoutSideEffects() {
+        // Another request bumped the version, so the guarded UPDATE matches no row
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> repository.update(employee))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(employee.getVersion()).isEqualTo(3);
+        verify(changeLog, never()).record(anyString(), anyInt(), anyString());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(dataVersions, never()).employeesChanged();
+    }
+}
@@ -0,0 +1,251 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmployeeStatisticsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeStatistics statistics;
+    // The committed rows of the employees table: team ID, role and hire year
+    private final List<Object[]> employees = new ArrayList<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    // Runs once inside the next GROUP BY query, after it read the table
+    private Runnable duringQuery;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            queries.incrementAndGet();
+            List<Object[]> rows = groupBy(employees);
+            if (duringQuery != null) {
+                Runnable action = duringQuery;
+                duringQuery = null;
+                action.run();
+            }
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        statistics = new EmployeeStatistics(jdbcTemplate);
+
+        insertRow(1, "Developer", 2022);
+        insertRow(1, "Developer", 2023);
+        insertRow(2, "Tester", 2023);
+    }
+
+    @Test
+    void statisticsAreUnavailableUntilLoaded() {
+        assertThat(statistics.snapshot()).isEmpty();
+
+        statistics.reload();
+
+        Map<String, Object> snapshot = statistics.snapshot().orElseThrow();
+        assertThat(snapshot.get("headcount")).isEqualTo(3L);
+        assertThat(snapshot.get("roles")).isEqualTo(Map.of("Developer", 2L, "Tester", 1L));
+        assertThat(snapshot.get("hireYears")).isEqualTo(Map.of(2022, 1L, 2023, 2L));
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 1L));
+    }
+
+    @Test
+    void committedDeltaIsAppliedAndRolledBackOneIsDropped() {
+        statistics.reload();
+
+        List<TransactionSynchronization> committed = applyInTransaction(
+                new EmployeeStatistics.Delta().add(2, "Tester", 2024, 1));
+        List<TransactionSynchronization> rolledBack = applyInTransaction(
+                new EmployeeStatistics.Delta().add(1, "Developer", 2022, -1));
+        assertThat(headcount()).isEqualTo(3L);
+
+        commit(committed);
+        beforeCommit(rolledBack);
+        afterCompletion(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(headcount()).isEqualTo(4L);
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 2L));
+        // A rolled back transaction does not keep a reload waiting
+        statistics.reload();
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void commitVisibleToTheQueryButAppliedLaterIsCountedOnce() throws Exception {
+        statistics.reload();
+
+        // The row is committed before the reload reads the table, its delta is applied afterwards
+        List<TransactionSynchronization> synchronizations = applyInTransaction(
+                new EmployeeStatistics.Delta().add(2, "Tester", 2024, 1));
+        beforeCommit(synchronizations);
+        insertRow(2, "Tester", 2024);
+        CompletableFuture<Void> afterCommit = CompletableFuture.runAsync(() -> {
+            sleep(100);
+            afterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        });
+
+        statistics.reload();
+        afterCommit.get(5, TimeUnit.SECONDS);
+
+        assertThat(headcount()).isEqualTo(4L);
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 2L));
+    }
+
+    @Test
+    void queryIsRepeatedWhenACommitRacesWithIt() {
+        statistics.reload();
+
+        // The query read the table just before another transaction committed
+        duringQuery = () -> {
+            List<TransactionSynchronization> synchronizations = applyInTransaction(
+                    new EmployeeStatistics.Delta().add(1, "Developer", 2024, 1));
+            beforeCommit(synchronizations);
+            insertRow(1, "Developer", 2024);
+            afterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        };
+        statistics.reload();
+
+        assertThat(queries).hasValue(3);
+        assertThat(headcount()).isEqualTo(4L);
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 3L, 2, 1L));
+    }
+
+    @Test
+    void removalAppliedBeforeTheAdditionItUndoesCancelsOut() {
+        statistics.reload();
+
+        // An employee is inserted and then deleted, the delete is applied first
+        List<TransactionSynchronization> insert = applyInTransaction(
+                new EmployeeStatistics.Delta().add(3, "Analyst", 2024, 1));
+        List<TransactionSynchronization> delete = applyInTransaction(
+                new EmployeeStatistics.Delta().add(3, "Analyst", 2024, -1));
+        beforeCommit(insert);
+        commit(delete);
+
+        // The negative count of the team is kept but not shown
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 1L));
+        assertThat(statistics.snapshot().orElseThrow().get("roles")).isEqualTo(Map.of("Developer", 2L, "Tester", 1L));
+
+        afterCompletion(insert, TransactionSynchronization.STATUS_COMMITTED);
+
+        Map<String, Object> snapshot = statistics.snapshot().orElseThrow();
+        assertThat(snapshot.get("headcount")).isEqualTo(3L);
+        assertThat(snapshot.get("roles")).isEqualTo(Map.of("Developer", 2L, "Tester", 1L));
+        assertThat(snapshot.get("hireYears")).isEqualTo(Map.of(2022, 1L, 2023, 2L));
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 1L));
+    }
+
+    @Test
+    void rebuildCorrectsDriftAndKeepsCountersWhenTheDatabaseFails() {
+        statistics.reload();
+        // A write that bypassed the repositories
+        insertRow(3, "Analyst", 2021);
+
+        statistics.rebuild();
+        assertThat(headcount()).isEqualTo(4L);
+
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("Communications link failure");
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        statistics.rebuild();
+
+        assertThat(headcount()).isEqualTo(4L);
+        assertThat(teamHeadcounts()).isEqualTo(Map.of(1, 2L, 2, 1L, 3, 1L));
+    }
+
+    private List<TransactionSynchronization> applyInTransaction(EmployeeStatistics.Delta delta) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.apply(delta);
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void commit(List<TransactionSynchronization> synchronizations) {
+        beforeCommit(synchronizations);
+        afterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void beforeCommit(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+    }
+
+    private static void afterCompletion(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        });
+    }
+
+    private synchronized void insertRow(int teamId, String role, Integer hireYear) {
+        employees.add(new Object[] {teamId, role, hireYear});
+    }
+
+    private long headcount() {
+        return (Long) statistics.snapshot().orElseThrow().get("headcount");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Long> teamHeadcounts() {
+        Map<Integer, Long> headcounts = new HashMap<>();
+        for (Map<String, Object> team : (List<Map<String, Object>>) statistics.snapshot().orElseThrow().get("teams")) {
+            headcounts.put((Integer) team.get("teamId"), (Long) team.get("headcount"));
+        }
+        return headcounts;
+    }
+
+    private synchronized List<Object[]> groupBy(List<Object[]> rows) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.merge(Arrays.asList(row), 1L, Long::sum);
+        }
+        List<Object[]> groups = new ArrayList<>();
+        counts.forEach((group, count) -> groups.add(new Object[] {group.get(0), group.get(1), group.get(2), count}));
+        return groups;
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("team_id")).thenReturn((Integer) row[0]);
+        when(rs.getString("role")).thenReturn((String) row[1]);
+        when(rs.getObject("hire_year", Integer.class)).thenReturn((Integer) row[2]);
+        when(rs.getLong("headcount")).thenReturn((Long) row[3]);
+        return rs;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
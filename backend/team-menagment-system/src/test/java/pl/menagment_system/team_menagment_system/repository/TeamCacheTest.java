@@ -0,0 +1,120 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.menagment_system.team_menagment_system.model.Team;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    // The name of every team in the database
+    private volatile String name = "Marketing";
+
+    @Test
+    void cachedTeamIsServedAsACopy() {
+        TeamCache cache = cache(Duration.ofMinutes(5), 10);
+
+        cache.get(1, this::load).orElseThrow().setName("Zmieniona nazwa");
+        Team cached = cache.get(1, this::load).orElseThrow();
+
+        assertThat(cached.getName()).isEqualTo("Marketing");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("team.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("team.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTeamIsLoadedAgain() throws InterruptedException {
+        TeamCache cache = cache(Duration.ofMillis(50), 10);
+
+        cache.get(1, this::load);
+        name = "Sprzedaż";
+        assertThat(cache.get(1, this::load).orElseThrow().getName()).isEqualTo("Marketing");
+        Thread.sleep(60);
+
+        assertThat(cache.get(1, this::load).orElseThrow().getName()).isEqualTo("Sprzedaż");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        TeamCache cache = cache(Duration.ofMinutes(5), 10);
+
+        // The row is read, then a write commits and invalidates the team before the read returns
+        Optional<Team> stale = cache.get(1, id -> {
+            Optional<Team> team = load(id);
+            name = "Sprzedaż";
+            cache.invalidate(id);
+            return team;
+        });
+
+        assertThat(stale.orElseThrow().getName()).isEqualTo("Marketing");
+        assertThat(cache.get(1, this::load).orElseThrow().getName()).isEqualTo("Sprzedaż");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void readBeforeTheWriteCommitsIsInvalidatedAfterCommit() {
+        TeamCache cache = cache(Duration.ofMinutes(5), 10);
+        cache.get(1, this::load);
+
+        List<TransactionSynchronization> synchronizations;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1);
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // Another request reads the old row before the write commits
+        assertThat(cache.get(1, this::load).orElseThrow().getName()).isEqualTo("Marketing");
+        name = "Sprzedaż";
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get(1, this::load).orElseThrow().getName()).isEqualTo("Sprzedaż");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void missingTeamIsNotCachedAndOldestTeamIsEvicted() throws InterruptedException {
+        TeamCache cache = cache(Duration.ofMinutes(5), 2);
+        IntFunction<Optional<Team>> missing = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(cache.get(9, missing)).isEmpty();
+        assertThat(cache.get(9, missing)).isEmpty();
+        assertThat(loads).hasValue(2);
+
+        cache.get(1, this::load);
+        Thread.sleep(1);
+        cache.get(2, this::load);
+        Thread.sleep(1);
+        cache.get(3, this::load);
+
+        assertThat(meterRegistry.get("team.cache.size").gauge().value()).isEqualTo(2);
+        cache.get(1, this::load);
+        assertThat(loads).hasValue(6);
+    }
+
+    private TeamCache cache(Duration ttl, int maxSize) {
+        return new TeamCache(meterRegistry, ttl, maxSize);
+    }
+
+    private Optional<Team> load(int id) {
+        loads.incrementAndGet();
+        return Optional.of(new Team(id, name));
+    }
+}
@@ -0,0 +1,71 @@
+package pl.menagment_system.team_menagment_system.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeamRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TeamCache teamCache;
+    private DataVersions dataVersions;
+    private ChangeLogRepository changeLog;
+    private ApplicationEventPublisher eventPublisher;
+    private TeamRepository repository;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        teamCache = mock(TeamCache.class);
+        dataVersions = mock(DataVersions.class);
+        changeLog = mock(ChangeLogRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        repository = new TeamRepository(jdbcTemplate, teamCache, dataVersions, changeLog, eventPublisher,
+                mock(EmployeeStatistics.class));
+
+        team = new Team(2, "Sprzedaż");
+        team.setVersion(7);
+    }
+
+    @Test
+    void updateBumpsTheVersionAndInvalidatesTheCache() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        assertThat(repository.update(team)).isEqualTo(1);
+
+        assertThat(team.getVersion()).isEqualTo(8);
+        verify(changeLog).record(ChangeLogEntry.TEAM, 2, ChangeLogEntry.UPSERT);
+        verify(teamCache).invalidate(2);
+        verify(dataVersions).teamsChanged();
+    }
+
+    @Test
+    void updateOfAChangedVersionFailsWithoutSideEffects() {
+        // Another request bumped the version, so the guarded UPDATE matches no row
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> repository.update(team))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(team.getVersion()).isEqualTo(7);
+        verify(changeLog, never()).record(anyString(), anyInt(), anyString());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(teamCache, never()).invalidate(anyInt());
+        verify(dataVersions, never()).teamsChanged();
+    }
+}
@@ -0,0 +1,266 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.model.Team;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeEventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private TestBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void everySubscriberReceivesTheEventsInOrder() throws InterruptedException {
+        broadcaster = new TestBroadcaster(meterRegistry, 16, 10);
+        RecordingEmitter first = subscribe();
+        RecordingEmitter second = subscribe();
+
+        for (int id = 1; id <= 5; id++) {
+            broadcaster.onEntityChanged(teamChanged(id));
+        }
+        await(() -> first.received() == 5 && second.received() == 5);
+
+        assertThat(first.eventIds()).containsExactly("1", "2", "3", "4", "5");
+        assertThat(second.eventIds()).containsExactly("1", "2", "3", "4", "5");
+        assertThat(first.payloads().get(0)).contains("\"type\":\"UPDATED\"", "\"name\":\"Zespół 1\"");
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWhenItsBufferOverflows() throws InterruptedException {
+        broadcaster = new TestBroadcaster(meterRegistry, 2, 10);
+        RecordingEmitter slow = subscribe();
+        RecordingEmitter fast = subscribe();
+        slow.block();
+
+        // The sender is stuck writing the first event, the next two fill the buffer
+        broadcaster.onEntityChanged(teamChanged(1));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int id = 2; id <= 3; id++) {
+            broadcaster.onEntityChanged(teamChanged(id));
+            int sent = id;
+            await(() -> fast.received() == sent);
+        }
+        assertThat(slow.completed).isFalse();
+        broadcaster.onEntityChanged(teamChanged(4));
+
+        assertThat(slow.completed).isTrue();
+        assertThat(fast.completed).isFalse();
+        assertThat(subscribers()).isEqualTo(1);
+        slow.release.countDown();
+        broadcaster.onEntityChanged(teamChanged(5));
+        await(() -> fast.received() == 5);
+        assertThat(slow.received()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void disconnectedSubscriberIsRemoved() throws InterruptedException {
+        broadcaster = new TestBroadcaster(meterRegistry, 16, 10);
+        RecordingEmitter disconnected = subscribe();
+        disconnected.failure = new IOException("Broken pipe");
+
+        broadcaster.onEntityChanged(teamChanged(1));
+
+        await(() -> subscribers() == 0);
+        assertThat(disconnected.completed).isTrue();
+    }
+
+    @Test
+    void subscribersAreLimited() {
+        broadcaster = new TestBroadcaster(meterRegistry, 16, 2);
+
+        assertThat(broadcaster.subscribe()).isPresent();
+        assertThat(broadcaster.subscribe()).isPresent();
+        assertThat(broadcaster.subscribe()).isEmpty();
+    }
+
+    @Test
+    void eventIsSentOnlyAfterItsTransactionCommits() throws InterruptedException {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionConfig.class)) {
+            TestBroadcaster broadcaster = context.getBean(TestBroadcaster.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe().orElseThrow();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(teamChanged(1));
+                sleep(50);
+                assertThat(emitter.received()).isZero();
+            });
+            await(() -> emitter.received() == 1);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(teamChanged(2));
+                status.setRollbackOnly();
+            });
+            context.publishEvent(teamChanged(3));
+            await(() -> emitter.received() == 2);
+
+            // The rolled back change was never sent
+            assertThat(emitter.payloads()).noneMatch(payload -> payload.contains("Zespół 2"));
+            assertThat(emitter.payloads().get(1)).contains("Zespół 3");
+        }
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe().orElseThrow();
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("events.subscribers").gauge().value();
+    }
+
+    private static EntityChangedEvent teamChanged(int id) {
+        return new EntityChangedEvent(ChangeLogEntry.TEAM, EntityChangedEvent.UPDATED, id, new Team(id, "Zespół " + id));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Broadcaster whose streams record the events instead of writing them to a connection.
+     */
+    static class TestBroadcaster extends ChangeEventBroadcaster {
+
+        TestBroadcaster(SimpleMeterRegistry meterRegistry, int bufferSize, int maxSubscribers) {
+            super(new ObjectMapper(), meterRegistry, bufferSize, maxSubscribers, Duration.ofMinutes(30), 2);
+        }
+
+        @Override
+        SseEmitter createEmitter(long timeout) {
+            return new RecordingEmitter(timeout);
+        }
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> sent = new ArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(0);
+        private volatile IOException failure;
+        private volatile boolean completed;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        void block() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (sent) {
+                sent.add(items);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        int received() {
+            synchronized (sent) {
+                return sent.size();
+            }
+        }
+
+        List<String> payloads() {
+            synchronized (sent) {
+                return sent.stream().map(RecordingEmitter::text).toList();
+            }
+        }
+
+        List<String> eventIds() {
+            return payloads().stream()
+                    .map(payload -> payload.substring(payload.indexOf("id:") + 3, payload.indexOf('\n', payload.indexOf("id:"))))
+                    .toList();
+        }
+
+        private static String text(Set<DataWithMediaType> items) {
+            StringBuilder text = new StringBuilder();
+            items.forEach(item -> text.append(item.getData()));
+            return text.toString();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+
+        @Bean
+        TestBroadcaster broadcaster() {
+            return new TestBroadcaster(new SimpleMeterRegistry(), 16, 10);
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager() throws Exception {
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(DataSourceTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
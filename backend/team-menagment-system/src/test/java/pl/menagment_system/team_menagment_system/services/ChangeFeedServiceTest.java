@@ -0,0 +1,90 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.menagment_system.team_menagment_system.dto.ChangeSet;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.repository.ChangeLogRepository;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeFeedServiceTest {
+
+    private ChangeLogRepository changeLogRepository;
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        changeLogRepository = mock(ChangeLogRepository.class);
+        employeeRepository = mock(EmployeeRepository.class);
+        when(employeeRepository.findByIds(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void stopsAtGapUntilTimeoutHasPassedSinceItWasFirstSeen() {
+        ChangeFeedService service = service(Duration.ofHours(1));
+        when(changeLogRepository.findSince(0, 100)).thenReturn(List.of(entry(1, 10), entry(3, 30)));
+
+        ChangeSet<Employee> changes = service.employeeChanges(0);
+
+        assertThat(changes.getVersion()).isEqualTo(1);
+        assertThat(changes.isHasMore()).isFalse();
+        verify(changeLogRepository, never()).existsBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void skipsRolledBackGapOnceTimeoutHasPassed() throws InterruptedException {
+        ChangeFeedService service = service(Duration.ofMillis(50));
+        when(changeLogRepository.findSince(0, 100)).thenReturn(List.of(entry(1, 10), entry(3, 30)));
+        when(changeLogRepository.existsBetween(1, 3)).thenReturn(false);
+
+        assertThat(service.employeeChanges(0).getVersion()).isEqualTo(1);
+        Thread.sleep(60);
+        ChangeSet<Employee> changes = service.employeeChanges(0);
+
+        assertThat(changes.getVersion()).isEqualTo(3);
+        assertThat(changes.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void neverSkipsGapOfTransactionOpenLongerThanTimeout() {
+        ChangeFeedService service = service(Duration.ZERO);
+        when(changeLogRepository.findSince(0, 100)).thenReturn(List.of(entry(1, 10), entry(3, 30)));
+        // The row of version 2 is still locked by its open transaction
+        when(changeLogRepository.existsBetween(1, 3)).thenReturn(true);
+
+        ChangeSet<Employee> changes = service.employeeChanges(0);
+        assertThat(changes.getVersion()).isEqualTo(1);
+        assertThat(changes.isHasMore()).isFalse();
+
+        // Once the slow transaction commits, its change is delivered in order
+        when(changeLogRepository.findSince(1, 100)).thenReturn(List.of(entry(2, 20), entry(3, 30)));
+        changes = service.employeeChanges(1);
+        assertThat(changes.getVersion()).isEqualTo(3);
+        verify(employeeRepository).findByIds(eq(List.of(20, 30)));
+    }
+
+    private ChangeFeedService service(Duration gapTimeout) {
+        return new ChangeFeedService(changeLogRepository, employeeRepository, mock(TeamRepository.class),
+                100, gapTimeout, Duration.ofDays(7));
+    }
+
+    private static ChangeLogEntry entry(long version, int employeeId) {
+        return new ChangeLogEntry(version, ChangeLogEntry.EMPLOYEE, employeeId, ChangeLogEntry.UPSERT,
+                new Timestamp(0));
+    }
+}
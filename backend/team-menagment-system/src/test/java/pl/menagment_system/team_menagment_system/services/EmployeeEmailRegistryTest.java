@@ -0,0 +1,89 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+
+import java.sql.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmployeeEmailRegistryTest {
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeEmailRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        when(employeeRepository.findAllNormalizedEmails())
+                .thenReturn(Map.of(1, "jan.kowalski@example.com", 2, "anna.nowak@example.com"));
+        registry = new EmployeeEmailRegistry(employeeRepository, true);
+    }
+
+    @Test
+    void unloadedRegistryFallsBackToDatabase() {
+        assertThat(registry.mightContain("wolny@example.com")).isTrue();
+    }
+
+    @Test
+    void deletedMemberEmailCanBeReused() {
+        registry.load();
+        assertThat(registry.mightContain("Jan.Kowalski@example.com")).isTrue();
+
+        // Tombstone of a member removed together with the team
+        registry.onEntityChanged(deleted(1));
+
+        assertThat(registry.mightContain("jan.kowalski@example.com")).isFalse();
+        assertThat(registry.mightContain("anna.nowak@example.com")).isTrue();
+
+        registry.onEntityChanged(changed(EntityChangedEvent.CREATED, 3, "jan.kowalski@example.com"));
+        assertThat(registry.mightContain("jan.kowalski@example.com")).isTrue();
+    }
+
+    @Test
+    void changedEmailReleasesThePreviousOne() {
+        registry.load();
+
+        registry.onEntityChanged(changed(EntityChangedEvent.UPDATED, 2, "anna.kowalska@example.com"));
+
+        assertThat(registry.mightContain("anna.nowak@example.com")).isFalse();
+        assertThat(registry.mightContain("anna.kowalska@example.com")).isTrue();
+    }
+
+    @Test
+    void emailTakenOverByAnotherEmployeeStaysRegistered() {
+        registry.load();
+
+        // The email moved to a new employee before the tombstone of its previous owner arrived
+        registry.onEntityChanged(changed(EntityChangedEvent.CREATED, 3, "jan.kowalski@example.com"));
+        registry.onEntityChanged(deleted(1));
+
+        assertThat(registry.mightContain("jan.kowalski@example.com")).isTrue();
+    }
+
+    @Test
+    void teamEventsAreIgnored() {
+        registry.load();
+
+        registry.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.TEAM, EntityChangedEvent.DELETED, 1, null));
+
+        assertThat(registry.mightContain("jan.kowalski@example.com")).isTrue();
+    }
+
+    private static EntityChangedEvent deleted(int id) {
+        return new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, id, null);
+    }
+
+    private static EntityChangedEvent changed(String type, int id, String email) {
+        Employee employee = new Employee(id, "Jan", "Kowalski", email, "+48123456789",
+                Date.valueOf("2023-01-15"), "Developer", 1);
+        return new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, type, id, employee);
+    }
+}
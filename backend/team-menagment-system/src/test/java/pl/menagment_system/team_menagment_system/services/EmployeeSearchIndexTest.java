@@ -0,0 +1,146 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EmployeeSearchIndexTest {
+
+    private EmployeeRepository employeeRepository;
+    private EmployeeSearchIndex index;
+    // Streamed in ID order, like by the repository; the IDs are far apart
+    private final List<Employee> employees = List.of(
+            employee(1, "Jan", "Kowalski", "Developer"),
+            employee(7, "Anna", "Kowal", "Tester"),
+            employee(1_000, "Kowal", "Nowak", "Analyst"),
+            employee(50_000, "Piotr", "Makowski", "Developer"),
+            employee(2_000_000_000, "Łukasz", "Żółć", "Księgowy"));
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).when(employeeRepository).streamAll(any());
+        index = new EmployeeSearchIndex(employeeRepository, new SimpleMeterRegistry(), true, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void rankingPrefersWholeWordsAndTheLastName() throws InterruptedException {
+        load();
+
+        // Whole last name, whole first name, then a last name starting with the term
+        assertThat(ids(index.search("kowal", 10))).containsExactly(7, 1_000, 1);
+        assertThat(ids(index.search("kowal", 2))).containsExactly(7, 1_000);
+        // A term inside a word matches too; equal scores are ordered by last name, then first name
+        assertThat(ids(index.search("owal", 10))).containsExactly(7, 1, 1_000);
+        assertThat(ids(index.search("kowal developer", 10))).containsExactly(1);
+        assertThat(index.search("kowalska", 10)).isEmpty();
+    }
+
+    @Test
+    void diacriticsAndCaseAreIgnored() throws InterruptedException {
+        load();
+
+        assertThat(ids(index.search("lukasz zolc", 10))).containsExactly(2_000_000_000);
+        assertThat(ids(index.search("ŁUKASZ", 10))).containsExactly(2_000_000_000);
+        assertThat(ids(index.search("ksiegowy", 10))).containsExactly(2_000_000_000);
+        assertThat(index.search("lukasz", 10).get(0).getLastName()).isEqualTo("Żółć");
+    }
+
+    @Test
+    void shortTermsOnlyMatchTheStartOfAWord() throws InterruptedException {
+        load();
+
+        // "ko" is inside "Makowski", but starts no word of it
+        assertThat(ids(index.search("ko", 10))).containsExactly(7, 1, 1_000);
+        assertThat(ids(index.search("j k", 10))).containsExactly(1);
+        assertThat(ids(index.search("p", 10))).containsExactly(50_000);
+        assertThat(index.search("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void committedChangesAreAppliedIncrementally() throws InterruptedException {
+        load();
+
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.UPDATED, 1,
+                employee(1, "Jan", "Nowicki", "Developer")));
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, 7, null));
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.CREATED, 1_500_000,
+                employee(1_500_000, "Ewa", "Kowalewska", "Tester")));
+        // Changes of teams are not indexed
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.TEAM, EntityChangedEvent.DELETED, 1, null));
+        await(() -> !index.search("kowalewska", 10).isEmpty());
+
+        assertThat(ids(index.search("nowicki", 10))).containsExactly(1);
+        assertThat(ids(index.search("kowal", 10))).containsExactly(1_000, 1_500_000);
+        assertThat(index.search("kowalski", 10)).isEmpty();
+        assertThat(index.search("anna", 10)).isEmpty();
+        assertThat(ids(index.search("tester", 10))).containsExactly(1_500_000);
+    }
+
+    @Test
+    void failedLoadIsRetried() throws InterruptedException {
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("Communications link failure");
+        }).doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).when(employeeRepository).streamAll(any());
+
+        load();
+
+        verify(employeeRepository, times(2)).streamAll(any());
+        assertThat(ids(index.search("kowal", 10))).containsExactly(7, 1_000, 1);
+    }
+
+    private void load() throws InterruptedException {
+        index.onApplicationReady();
+        await(index::isReady);
+    }
+
+    private static List<Integer> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static Employee employee(int id, String firstName, String lastName, String role) {
+        String email = EmployeeSearchIndex.normalize(firstName + "." + lastName) + "@example.com";
+        return new Employee(id, firstName, lastName, email, "+48123456789", Date.valueOf("2023-01-15"), role, 1);
+    }
+}
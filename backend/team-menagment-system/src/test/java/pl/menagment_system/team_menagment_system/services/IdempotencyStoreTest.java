@@ -0,0 +1,86 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void releasedAndExpiredKeysLeaveTheStore() throws InterruptedException {
+        IdempotencyStore store = store(Duration.ofMillis(50), 100, DataSize.ofKilobytes(1));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(store.reserve("/teams key-" + i, "a")).isNull();
+            store.release("/teams key-" + i);
+        }
+        assertThat(store.size()).isZero();
+
+        store.reserve("/teams key", "a");
+        store.complete("/teams key", response(10));
+        Thread.sleep(60);
+        // The expired key is replaced by the new reservation, not kept next to it
+        assertThat(store.reserve("/teams key", "b")).isNull();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.storedBytes()).isZero();
+        assertThat(meterRegistry.get("idempotency.entries").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void completedKeyIsNotReleased() {
+        IdempotencyStore store = store(Duration.ofHours(24), 100, DataSize.ofKilobytes(1));
+
+        store.reserve("/teams key", "a");
+        assertThat(store.complete("/teams key", response(10))).isTrue();
+        store.release("/teams key");
+
+        assertThat(store.reserve("/teams key", "a").getResponse().status()).isEqualTo(201);
+    }
+
+    @Test
+    void oldestKeysAreEvictedBeyondTheEntryLimit() {
+        IdempotencyStore store = store(Duration.ofHours(24), 3, DataSize.ofKilobytes(1));
+
+        for (int i = 1; i <= 5; i++) {
+            store.reserve("/teams key-" + i, "a");
+        }
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.reserve("/teams key-1", "a")).isNull();
+        assertThat(store.reserve("/teams key-5", "a")).isNotNull();
+    }
+
+    @Test
+    void oldestResponsesAreEvictedBeyondTheByteLimit() {
+        IdempotencyStore store = store(Duration.ofHours(24), 100, DataSize.ofBytes(1000));
+
+        for (int i = 1; i <= 3; i++) {
+            store.reserve("/employees/batch key-" + i, "a");
+            assertThat(store.complete("/employees/batch key-" + i, response(400))).isTrue();
+        }
+
+        assertThat(store.storedBytes()).isEqualTo(800);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.reserve("/employees/batch key-1", "a")).isNull();
+
+        // A response larger than the whole store is not kept
+        assertThat(store.complete("/employees/batch key-1", response(1001))).isFalse();
+        assertThat(store.reserve("/employees/batch key-1", "a")).isNull();
+        assertThat(store.storedBytes()).isEqualTo(800);
+    }
+
+    private IdempotencyStore store(Duration ttl, int maxEntries, DataSize maxBytes) {
+        return new IdempotencyStore(meterRegistry, ttl, maxEntries, maxBytes);
+    }
+
+    private static IdempotencyStore.StoredResponse response(int size) {
+        return new IdempotencyStore.StoredResponse(201, "application/json", Map.of(), new byte[size]);
+    }
+}
@@ -0,0 +1,166 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import pl.menagment_system.team_menagment_system.dto.NameSuggestion;
+import pl.menagment_system.team_menagment_system.model.ChangeLogEntry;
+import pl.menagment_system.team_menagment_system.model.Employee;
+import pl.menagment_system.team_menagment_system.model.EntityChangedEvent;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.menagment_system.team_menagment_system.services.NameAutocompleteIndex.EMPLOYEE;
+import static pl.menagment_system.team_menagment_system.services.NameAutocompleteIndex.TEAM;
+
+class NameAutocompleteIndexTest {
+
+    private EmployeeRepository employeeRepository;
+    private NameAutocompleteIndex index;
+    private final List<Employee> employees = List.of(
+            employee(1, "Jan", "Kowalski"),
+            employee(2, "Jan", "Nowak"),
+            employee(3, "Anna", "Kowalska"),
+            employee(4, "Kowal", "Kowalewski"));
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).when(employeeRepository).streamAll(any());
+        when(teamRepository.findAll()).thenReturn(List.of(new Team(1, "Dział Marketingu"), new Team(2, "Sprzedaż")));
+        index = new NameAutocompleteIndex(employeeRepository, teamRepository, new SimpleMeterRegistry(),
+                Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void multiWordPrefixMatchesTheFollowingWords() throws InterruptedException {
+        load();
+
+        assertThat(ids(index.suggest(EMPLOYEE, "jan k", 10))).containsExactly(1);
+        assertThat(ids(index.suggest(EMPLOYEE, "Jan  ", 10))).containsExactly(1, 2);
+        assertThat(ids(index.suggest(EMPLOYEE, "anna kowalska", 10))).containsExactly(3);
+        assertThat(index.suggest(EMPLOYEE, "jan kowalska", 10)).isEmpty();
+        assertThat(ids(index.suggest(TEAM, "dzial m", 10))).containsExactly(1);
+        assertThat(ids(index.suggest(TEAM, "marketingu", 10))).containsExactly(1);
+    }
+
+    @Test
+    void rowWithSeveralMatchingWordsIsSuggestedOnce() throws InterruptedException {
+        load();
+
+        // "kowal kowalewski" and "kowalewski" both start with the prefix
+        assertThat(ids(index.suggest(EMPLOYEE, "kowal", 10))).containsExactly(4, 3, 1);
+        assertThat(ids(index.suggest(EMPLOYEE, "kowal", 2))).containsExactly(4, 3);
+    }
+
+    @Test
+    void deltaReplacesOutdatedEntriesOfTheMainArrays() throws InterruptedException {
+        load();
+
+        change(EntityChangedEvent.UPDATED, employee(1, "Jan", "Kowalczyk"));
+        change(EntityChangedEvent.CREATED, employee(5, "Kowal", "Kowalik"));
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, EntityChangedEvent.DELETED, 3, null));
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.TEAM, EntityChangedEvent.UPDATED, 2,
+                new Team(2, "Sprzedaż Detaliczna")));
+        await(() -> !index.suggest(TEAM, "detal", 10).isEmpty());
+
+        assertThat(index.deltaSize(EMPLOYEE)).isPositive();
+        // Main and delta keys merged in key order, each row once and only with its current name
+        assertThat(names(index.suggest(EMPLOYEE, "kowal", 10)))
+                .containsExactly("Kowal Kowalewski", "Kowal Kowalik", "Jan Kowalczyk");
+        assertThat(ids(index.suggest(EMPLOYEE, "jan k", 10))).containsExactly(1);
+        assertThat(index.suggest(EMPLOYEE, "anna", 10)).isEmpty();
+        assertThat(ids(index.suggest(TEAM, "sprzedaz", 10))).containsExactly(2);
+    }
+
+    @Test
+    void deltaIsMergedIntoTheMainArraysAtTheThreshold() throws InterruptedException {
+        load();
+
+        int lastId = 100 + NameAutocompleteIndex.COMPACTION_THRESHOLD - 1;
+        for (int id = 100; id < lastId; id++) {
+            change(EntityChangedEvent.CREATED, employee(id, "Ewa", "Nowicka" + id));
+        }
+        await(() -> !index.suggest(EMPLOYEE, "nowicka" + (lastId - 1), 10).isEmpty());
+        assertThat(index.deltaSize(EMPLOYEE)).isEqualTo(2 * (NameAutocompleteIndex.COMPACTION_THRESHOLD - 1));
+
+        change(EntityChangedEvent.UPDATED, employee(1, "Jan", "Kowalczyk"));
+        await(() -> index.deltaSize(EMPLOYEE) == 0);
+
+        assertThat(index.suggest(EMPLOYEE, "ewa", 2000)).hasSize(NameAutocompleteIndex.COMPACTION_THRESHOLD - 1);
+        assertThat(names(index.suggest(EMPLOYEE, "jan k", 10))).containsExactly("Jan Kowalczyk");
+    }
+
+    @Test
+    void failedLoadIsRetried() throws InterruptedException {
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("Communications link failure");
+        }).doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).when(employeeRepository).streamAll(any());
+
+        load();
+
+        verify(employeeRepository, times(2)).streamAll(any());
+        assertThat(ids(index.suggest(EMPLOYEE, "jan k", 10))).containsExactly(1);
+    }
+
+    private void load() throws InterruptedException {
+        index.onApplicationReady();
+        await(index::isReady);
+    }
+
+    private void change(String type, Employee employee) {
+        index.onEntityChanged(new EntityChangedEvent(ChangeLogEntry.EMPLOYEE, type, employee.getId(), employee));
+    }
+
+    private static List<Integer> ids(List<NameSuggestion> suggestions) {
+        return suggestions.stream().map(NameSuggestion::getId).toList();
+    }
+
+    private static List<String> names(List<NameSuggestion> suggestions) {
+        return suggestions.stream().map(NameSuggestion::getName).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static Employee employee(int id, String firstName, String lastName) {
+        return new Employee(id, firstName, lastName, firstName.toLowerCase() + "@example.com", "+48123456789",
+                Date.valueOf("2023-01-15"), "Developer", 1);
+    }
+}
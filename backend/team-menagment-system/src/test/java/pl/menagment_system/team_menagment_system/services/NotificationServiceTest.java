@@ -0,0 +1,151 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.menagment_system.team_menagment_system.model.NotificationStatus;
+import pl.menagment_system.team_menagment_system.model.OutboxMessage;
+import pl.menagment_system.team_menagment_system.repository.OutboxRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private static final Map<String, String> DATA = Map.of(
+            "email", "jan.kowalski@example.com", "firstName", "Jan", "newTeam", "Marketing", "phone", "+48123456789");
+
+    private OutboxRepository outboxRepository;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        service = new NotificationService(mock(EmployeeEventPublisher.class), outboxRepository, "async", 2);
+    }
+
+    @Test
+    void statusIsRegisteredOnlyAfterCommit() {
+        NotificationStatus[] sent = new NotificationStatus[1];
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> sent[0] = service.send(DATA));
+        NotificationStatus status = sent[0];
+
+        verify(outboxRepository).save(status.getId(), OutboxMessage.EMAIL, DATA);
+        verify(outboxRepository).save(status.getId(), OutboxMessage.SMS, DATA);
+        assertThat(service.findById(status.getId())).isEmpty();
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(service.findById(status.getId())).containsSame(status);
+    }
+
+    @Test
+    void rolledBackNotificationLeavesNoStatus() {
+        List<List<NotificationStatus>> sent = new ArrayList<>();
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> sent.add(service.sendAll(List.of(DATA, DATA))));
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(outboxRepository).saveAll(anyList());
+        assertThat(sent.get(0)).hasSize(2).allSatisfy(status -> assertThat(service.findById(status.getId())).isEmpty());
+    }
+
+    @Test
+    void statusIsRegisteredImmediatelyWithoutTransaction() {
+        NotificationStatus status = service.send(DATA);
+
+        assertThat(service.findById(status.getId())).containsSame(status);
+        assertThat(status.getEmailStatus()).isEqualTo(NotificationStatus.PENDING);
+    }
+
+    @Test
+    void deliveryResultUpdatesTheCommittedStatus() {
+        NotificationStatus status = service.send(DATA);
+
+        service.receiveEmailStatus("SUCCESS", status.getId());
+        service.receiveSmsStatus("FAILED", status.getId());
+        service.receiveSmsStatus("SUCCESS", "nieznane");
+
+        assertThat(status.getEmailStatus()).isEqualTo("SUCCESS");
+        assertThat(status.getSmsStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentStatuses() {
+        NotificationStatus first = service.send(DATA);
+        NotificationStatus second = service.send(DATA);
+        NotificationStatus third = service.send(DATA);
+
+        assertThat(service.findById(first.getId())).isEmpty();
+        assertThat(service.findById(second.getId())).containsSame(second);
+        assertThat(service.findById(third.getId())).containsSame(third);
+    }
+
+    @Test
+    void syncModeSendsOnlyAfterCommit() {
+        EmployeeEventPublisher publisher = mock(EmployeeEventPublisher.class);
+        when(publisher.sendEmployeeUpdateMail(DATA)).thenReturn("SUCCESS");
+        when(publisher.sendEmployeeUpdateSms(DATA)).thenReturn("SUCCESS");
+        service = new NotificationService(publisher, outboxRepository, "sync", 10);
+
+        List<List<NotificationStatus>> sent = new ArrayList<>();
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> sent.add(service.sendAll(List.of(DATA, DATA))));
+        verifyNoInteractions(publisher, outboxRepository);
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(publisher, times(2)).sendEmployeeUpdateMail(DATA);
+        verify(publisher, times(2)).sendEmployeeUpdateSms(DATA);
+        assertThat(sent.get(0)).hasSize(2).allSatisfy(status -> {
+            assertThat(status.getEmailStatus()).isEqualTo("SUCCESS");
+            assertThat(service.findById(status.getId())).containsSame(status);
+        });
+    }
+
+    @Test
+    void syncModeSendsNothingOnRollback() {
+        EmployeeEventPublisher publisher = mock(EmployeeEventPublisher.class);
+        service = new NotificationService(publisher, outboxRepository, "sync", 10);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> service.send(DATA));
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void syncModeReportsAFailedRequestAfterCommit() {
+        EmployeeEventPublisher publisher = mock(EmployeeEventPublisher.class);
+        when(publisher.sendEmployeeUpdateMail(DATA)).thenThrow(new AmqpConnectException(new IOException("Connection refused")));
+        when(publisher.sendEmployeeUpdateSms(DATA)).thenReturn(null);
+        service = new NotificationService(publisher, outboxRepository, "sync", 10);
+
+        NotificationStatus status = service.send(DATA);
+
+        assertThat(status.getEmailStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(status.getSmsStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(service.findById(status.getId())).containsSame(status);
+    }
+
+    private List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadCoalescerTest {
+
+    private static final int CALLERS = 20;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadCoalescer readCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        readCoalescer = new ReadCoalescer(meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersOfOneKeyShareOneRead() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> callers = startCallers(() -> {
+            reads.incrementAndGet();
+            await(release);
+            return result;
+        });
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        }
+        assertThat(reads).hasValue(1);
+        assertThat(count(ReadCoalescer.EXECUTED)).isEqualTo(1);
+        assertThat(count(ReadCoalescer.COALESCED)).isEqualTo(CALLERS - 1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void failureReachesEveryWaiterAsTheOriginalException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Brak połączenia z bazą danych");
+
+        List<Future<Object>> callers = startCallers(() -> {
+            await(release);
+            throw failure;
+        });
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void readIsNotSharedAfterItCompletes() {
+        AtomicInteger reads = new AtomicInteger();
+
+        assertThat(readCoalescer.execute("teams", "key", reads::incrementAndGet)).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+        assertThat(readCoalescer.execute("teams", "key", reads::incrementAndGet)).isEqualTo(2);
+
+        assertThatThrownBy(() -> readCoalescer.execute("teams", "key", () -> {
+            throw new IllegalArgumentException("Nieprawidłowy parametr");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(inFlight()).isZero();
+        assertThat(readCoalescer.execute("teams", "key", reads::incrementAndGet)).isEqualTo(3);
+
+        assertThat(count(ReadCoalescer.EXECUTED)).isEqualTo(4);
+        assertThat(meterRegistry.find("singleflight.calls").tag("result", ReadCoalescer.COALESCED).counter())
+                .isNull();
+    }
+
+    @Test
+    void differentKeysAndNamesAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> employees = executor.submit(() -> readCoalescer.execute("employees", "key", () -> {
+            await(release);
+            return "employees";
+        }));
+        awaitInFlight(1);
+
+        assertThat(readCoalescer.execute("teams", "key", () -> "teams")).isEqualTo("teams");
+        assertThat(readCoalescer.execute("employees", "other", () -> "other")).isEqualTo("other");
+        release.countDown();
+
+        assertThat(employees.get(5, TimeUnit.SECONDS)).isEqualTo("employees");
+        assertThat(meterRegistry.find("singleflight.calls").tag("result", ReadCoalescer.COALESCED).counter())
+                .isNull();
+    }
+
+    private List<Future<Object>> startCallers(Supplier<Object> loader) {
+        List<Future<Object>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> readCoalescer.execute("employees", List.of("\"1\"", "all"), loader)));
+        }
+        return callers;
+    }
+
+    private void awaitCoalesced(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(ReadCoalescer.COALESCED) < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(ReadCoalescer.COALESCED)).isEqualTo(callers);
+    }
+
+    private void awaitInFlight(int reads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight() < reads && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(inFlight()).isEqualTo(reads);
+    }
+
+    private double count(String result) {
+        Counter counter = meterRegistry.find("singleflight.calls").tag("result", result).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("singleflight.in-flight").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package pl.menagment_system.team_menagment_system.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.menagment_system.team_menagment_system.model.Team;
+import pl.menagment_system.team_menagment_system.model.TeamDeletionJob;
+import pl.menagment_system.team_menagment_system.repository.EmployeeRepository;
+import pl.menagment_system.team_menagment_system.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeamDeletionServiceTest {
+
+    private static final int TEAM_ID = 7;
+    private static final int CHUNK_SIZE = 500;
+
+    private EmployeeRepository employeeRepository;
+    private TeamRepository teamRepository;
+    private TeamDeletionService service;
+    // The IDs of the members still in the team
+    private final List<Integer> members = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        teamRepository = mock(TeamRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        when(employeeRepository.countByTeamId(TEAM_ID)).thenAnswer(invocation -> members.size());
+        when(employeeRepository.lockIdsByTeamId(TEAM_ID, CHUNK_SIZE))
+                .thenAnswer(invocation -> List.copyOf(members.subList(0, Math.min(CHUNK_SIZE, members.size()))));
+        when(employeeRepository.deleteByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            members.removeAll(ids);
+            return ids.size();
+        });
+        when(teamRepository.deleteById(TEAM_ID)).thenReturn(1);
+
+        service = new TeamDeletionService(employeeRepository, teamRepository, transactionTemplate, CHUNK_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void requiresJobOnlyForTeamsLargerThanOneChunk() {
+        addMembers(CHUNK_SIZE);
+        assertThat(service.requiresJob(TEAM_ID)).isFalse();
+
+        addMembers(1);
+        assertThat(service.requiresJob(TEAM_ID)).isTrue();
+    }
+
+    @Test
+    void deletesMembersInChunksAndTheTeamLast() throws InterruptedException {
+        addMembers(1234);
+
+        TeamDeletionJob job = service.start(new Team(TEAM_ID, "Marketing"));
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(TeamDeletionJob.COMPLETED);
+        assertThat(job.getTotalMembers()).isEqualTo(1234);
+        assertThat(job.getDeletedMembers()).isEqualTo(1234);
+        assertThat(job.getError()).isNull();
+        assertThat(members).isEmpty();
+        // 500 + 500 + 234 members, the last chunk is not full
+        verify(employeeRepository, times(3)).deleteByIds(anyCollection());
+        verify(teamRepository).deleteById(TEAM_ID);
+        assertThat(service.findActive(TEAM_ID)).isEmpty();
+        assertThat(service.findById(job.getId())).containsSame(job);
+    }
+
+    @Test
+    void marksJobFailedAndKeepsTheTeamWhenAChunkFails() throws InterruptedException {
+        addMembers(1200);
+        when(employeeRepository.deleteByIds(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Integer> ids = invocation.getArgument(0);
+                    members.removeAll(ids);
+                    return ids.size();
+                })
+                .thenThrow(new DataAccessResourceFailureException("Lock wait timeout exceeded"));
+
+        TeamDeletionJob job = service.start(new Team(TEAM_ID, "Marketing"));
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(TeamDeletionJob.FAILED);
+        assertThat(job.getError()).isEqualTo("Lock wait timeout exceeded");
+        assertThat(job.getDeletedMembers()).isEqualTo(CHUNK_SIZE);
+        verify(teamRepository, never()).deleteById(anyInt());
+        // A failed job no longer blocks a new attempt
+        assertThat(service.findActive(TEAM_ID)).isEmpty();
+    }
+
+    @Test
+    void repeatedRequestReturnsTheActiveJob() throws InterruptedException {
+        addMembers(1000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(employeeRepository.lockIdsByTeamId(TEAM_ID, CHUNK_SIZE)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.copyOf(members.subList(0, Math.min(CHUNK_SIZE, members.size())));
+        });
+        Team team = new Team(TEAM_ID, "Marketing");
+
+        TeamDeletionJob job = service.start(team);
+        assertThat(service.start(team)).isSameAs(job);
+        assertThat(service.findActive(TEAM_ID)).containsSame(job);
+        release.countDown();
+        awaitFinished(job);
+
+        assertThat(service.start(team)).isNotSameAs(job);
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentJobs() throws InterruptedException {
+        TeamDeletionJob first = service.start(new Team(TEAM_ID, "Marketing"));
+        awaitFinished(first);
+        TeamDeletionJob second = service.start(new Team(TEAM_ID, "Marketing"));
+        awaitFinished(second);
+        TeamDeletionJob third = service.start(new Team(TEAM_ID, "Marketing"));
+        awaitFinished(third);
+
+        assertThat(service.findById(first.getId())).isEmpty();
+        assertThat(service.findById(second.getId())).containsSame(second);
+        assertThat(service.findById(third.getId())).containsSame(third);
+    }
+
+    private void addMembers(int count) {
+        int next = members.isEmpty() ? 1 : members.get(members.size() - 1) + 1;
+        IntStream.range(next, next + count).forEach(members::add);
+    }
+
+    private static void awaitFinished(TeamDeletionJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!TeamDeletionJob.COMPLETED.equals(job.getStatus()) && !TeamDeletionJob.FAILED.equals(job.getStatus())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(job.getStatus()).isIn(TeamDeletionJob.COMPLETED, TeamDeletionJob.FAILED);
+    }
+}
@@ -1,4 +1,4 @@
-import { Component, OnInit, Input } from "@angular/core";
+import { Component, OnInit, Input, SimpleChanges } from "@angular/core";
 import { TeamSectionComponent } from "../team-section/team-section.component";
 import { Employee } from "../../interfaces/Employee.interface";
 import { NgFor } from "@angular/common";
@@ -50,6 +50,11 @@ export class TeamsContainerComponent implements OnInit {
     this.employees = [...this.employees, newEmployee];
   }
 
+  handleTeamAdd(newTeam: Team) {
+    this.teams = [...this.teams, newTeam];
+    this.filterTeams();
+  }
+
   fetchTeams() {
     return this.teamService.getTeams().subscribe({
       next: ({ data }) => {
@@ -60,8 +65,14 @@ export class TeamsContainerComponent implements OnInit {
     });
   }
 
+  // Fetch only the selected team's employees, or everyone when no team is selected
   fetchEmployees() {
-    return this.employeesService.getAll().subscribe({
+    const request =
+      this.selectedTeamId === -1
+        ? this.employeesService.getAll()
+        : this.employeesService.getByTeam(this.selectedTeamId);
+
+    return request.subscribe({
       next: ({ data }) => (this.employees = data as Employee[]),
       error: (err) => this.communicationService.showInfo(err),
     });
@@ -87,9 +98,14 @@ export class TeamsContainerComponent implements OnInit {
     this.fetchEmployees();
   }
 
-  ngOnChanges() {
+  ngOnChanges(changes: SimpleChanges) {
     // Re-filter teams when selectedTeamId changes
     this.filterTeams();
+
+    // The initial value is fetched in ngOnInit
+    if (changes["selectedTeamId"] && !changes["selectedTeamId"].firstChange) {
+      this.fetchEmployees();
+    }
   }
 
   /**
@@ -104,6 +120,6 @@ export class TeamsContainerComponent implements OnInit {
 
   // Call addTeam method from teamMenagement service to add new employee
   onAddTeam(): void {
-    this.teamManagementService.addTeam(this.dialog, this.fetchTeams.bind(this));
+    this.teamManagementService.addTeam(this.dialog, this.handleTeamAdd.bind(this));
   }
 }
@@ -6,5 +6,7 @@ export interface ApiResponse {
   message: string;
   data?: Team | Employee | [];
   error?: string;
-  emailSentStatus?: "SUCCESS" | "FAILED";
+  emailSentStatus?: "SUCCESS" | "FAILED" | "PENDING";
+  smsSentStatus?: "SUCCESS" | "FAILED" | "PENDING";
+  notificationId?: string;
 }
@@ -71,7 +71,7 @@ export class EmployeeManagementService {
    * @param dialog The MatDialog service to open the dialog.
    * @param teamName The name of the team to which the employee is being added.
    * @param teamId The ID of the team to which the employee is being added.
-   * @returns An Observable that emits the result of adding a new employee.
+   * @returns An Observable that emits the result of adding a new employee, including the saved employee with its ID.
    */
   openAddEmployeeModal(dialog: MatDialog, teamName: string, teamId: number) {
     const dialogRef = dialog.open(AddEditEmployeeModalComponent, {
@@ -85,9 +85,7 @@ export class EmployeeManagementService {
     return dialogRef.afterClosed().pipe(
       switchMap((dialogResult: Employee) => {
         if (dialogResult) {
-          return this.addEmployee(dialogResult).pipe(
-            map((result) => ({ ...result, newEmployee: dialogResult }))
-          );
+          return this.addEmployee(dialogResult);
         }
         return of({ success: false });
       })
@@ -150,7 +148,8 @@ export class EmployeeManagementService {
    * It handles the response or error from the backend operation, logging the outcome to the user.
    *
    * @param employee The Employee object representing the new employee to be added.
-   * @returns An observable that resolves to an object indicating the success or failure of the operation.
+   * @returns An observable that resolves to an object indicating the success or failure of the operation
+   * and, on success, the saved employee returned by the backend with its generated ID.
    */
   private addEmployee(employee: Employee) {
     return this.employeesService.addNew(employee).pipe(
@@ -164,7 +163,7 @@ export class EmployeeManagementService {
         },
         error: (err) => this.communicationService.showError(err),
       }),
-      map((response) => ({ success: true })),
+      map((response) => ({ success: true, newEmployee: response.data as Employee })),
       catchError((error) => of({ success: false }))
     );
   }
@@ -45,6 +45,22 @@ export class EmployeesService {
       .pipe(map((response) => response));
   }
 
+  /**
+   * Retrieves the employees of a single team from the server.
+   *
+   * This method sends a GET request to the server to fetch only the members of the given team,
+   * so switching the team filter does not download the whole employee list.
+   * The response is then mapped to the ApiResponse interface, which includes the data, success status, and error message.
+   *
+   * @param teamId The ID of the team whose employees should be fetched.
+   * @returns An Observable that resolves to an ApiResponse object containing an array of Employee objects.
+   */
+  getByTeam(teamId: number): Observable<ApiResponse> {
+    return this.http
+      .get<ApiResponse>(`${this.apiUrl}/teams/${teamId}/employees`, this.getHeaders())
+      .pipe(map((response) => response));
+  }
+
   /**
    * Deletes an employee by their ID from the server.
    *
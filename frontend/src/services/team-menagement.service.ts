@@ -4,6 +4,7 @@ import { TeamService } from "./teams.service";
 import { CommunicationService } from "./communication.service";
 import { AddEditTeamsModalComponent } from "../components/add-edit-teams-modal/add-edit-teams-modal.component";
 import { DeleteConfirmModalComponent } from "../components/delete-confirm-modal/delete-confirm-modal.component";
+import { Team } from "../interfaces/Team.interface";
 
 /**
  * Service responsible for managing team operations, including renaming and deleting teams.
@@ -113,13 +114,14 @@ export class TeamManagementService {
    * Adds a new team.
    * This method uses the MatDialog service to open a dialog for adding a new team.
    * If the user confirms the action, it uses the TeamService to add the new team to the server.
-   * If the addition is successful, it displays an info message to the user and refreshes the list of teams.
+   * If the addition is successful, it displays an info message to the user and passes the saved team,
+   * including the ID generated by the backend, to the callback, so the list can be updated without re-fetching it.
    * If an error occurs, it displays an error message.
    *
    * @param dialog The MatDialog service to open the dialog.
-   * @param fetchTeams Callback function to be executed after adding a new team.
+   * @param onTeamAdded Callback function receiving the saved team after adding a new team.
    */
-  addTeam(dialog: MatDialog, fetchTeams: () => void): void {
+  addTeam(dialog: MatDialog, onTeamAdded: (team: Team) => void): void {
     const dialogRef = dialog.open(AddEditTeamsModalComponent, {
       data: { dialogTitle: "Dodaj nowy zespół", oldName: "" },
     });
@@ -132,9 +134,9 @@ export class TeamManagementService {
     dialogRef.afterClosed().subscribe((result: DialogResult) => {
       if (result?.confirmed) {
         this.teamService.addTeam(result.newName).subscribe({
-          next: ({ message }) => {
+          next: ({ message, data }) => {
             this.communicationService.showInfo(message);
-            fetchTeams(); // Refresh the list of teams after adding a new one
+            onTeamAdded(data as Team); // Add the saved team to the list without re-fetching it
           },
           error: (err) => this.communicationService.showError(err),
         });
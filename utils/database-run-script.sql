@@ -5,7 +5,9 @@ USE menagement_system;
 CREATE TABLE
     teams (
         ID int primary key auto_increment,
-        name varchar(75)
+        name varchar(75),
+        -- Incremented by every update, checked by the optimistic concurrency control
+        version int not null default 0
     );
 
 CREATE TABLE
@@ -18,9 +20,37 @@ CREATE TABLE
         hire_date date,
         role varchar(50),
         team_id int,
+        -- Incremented by every update, checked by the optimistic concurrency control
+        version int not null default 0,
+        -- Lower-cased copy of the email, used for case-insensitive uniqueness checks
+        email_normalized varchar(100) AS (LOWER(email)) STORED,
+        UNIQUE INDEX ux_employees_email_normalized (email_normalized),
+        -- Serves team filtering and its keyset pagination
+        INDEX idx_employees_team_id (team_id, ID),
         FOREIGN KEY (team_id) REFERENCES teams (ID) ON DELETE CASCADE
     );
 
+-- Notifications waiting to be published to RabbitMQ, written in the same transaction as the employee change
+CREATE TABLE
+    employee_outbox (
+        ID bigint primary key auto_increment,
+        notification_id varchar(36) not null,
+        channel varchar(10) not null,
+        payload text not null,
+        created_at timestamp default current_timestamp
+    );
+
+-- Versioned log of employee and team changes, read by the delta sync endpoints
+CREATE TABLE
+    change_log (
+        version bigint primary key auto_increment,
+        entity varchar(10) not null,
+        entity_id int not null,
+        operation varchar(10) not null,
+        changed_at timestamp(3) default current_timestamp(3),
+        INDEX idx_change_log_changed_at (changed_at)
+    );
+
 -- Example values
 INSERT INTO
     teams (name)